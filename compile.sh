@@ -12,31 +12,49 @@ javac -encoding UTF-8 -d build/classes \
     src/main/java/com/gameengine/math/Vector2.java \
     src/main/java/com/gameengine/input/InputManager.java \
     src/main/java/com/gameengine/core/Component.java \
+    src/main/java/com/gameengine/core/ComponentRegistry.java \
     src/main/java/com/gameengine/core/GameObject.java \
     src/main/java/com/gameengine/components/TransformComponent.java \
     src/main/java/com/gameengine/components/PhysicsComponent.java \
+    src/main/java/com/gameengine/components/PhysicsStorage.java \
+    src/main/java/com/gameengine/components/PhysicsIntegrator.java \
+    src/main/java/com/gameengine/components/ColliderComponent.java \
+    src/main/java/com/gameengine/components/ParticleEngine.java \
     src/main/java/com/gameengine/components/RenderComponent.java \
     src/main/java/com/gameengine/components/HealthComponent.java \
     src/main/java/com/gameengine/components/SpriteComponent.java \
     src/main/java/com/gameengine/components/LifetimeComponent.java \
     src/main/java/com/gameengine/components/AttackRangeComponent.java \
-    src/main/java/com/gameengine/components/ParticleSystemComponent.java \
     src/main/java/com/gameengine/components/AudioSystemComponent.java \
     src/main/java/com/gameengine/components/BackgroundMusicComponent.java \
     src/main/java/com/gameengine/components/SaveSystemComponent.java \
     src/main/java/com/gameengine/components/LoadSystemComponent.java \
     src/main/java/com/gameengine/components/MainMenuComponent.java \
     src/main/java/com/gameengine/graphics/Renderer.java \
+    src/main/java/com/gameengine/graphics/CommandBuffer.java \
+    src/main/java/com/gameengine/graphics/TextCache.java \
+    src/main/java/com/gameengine/graphics/GradientSpriteCache.java \
+    src/main/java/com/gameengine/graphics/AssetManager.java \
+    src/main/java/com/gameengine/graphics/RenderLayer.java \
+    src/main/java/com/gameengine/graphics/SoftwareRasterizer.java \
     src/main/java/com/gameengine/core/GameEngine.java \
+    src/main/java/com/gameengine/core/SwingDialogs.java \
     src/main/java/com/gameengine/core/GameLogic.java \
     src/main/java/com/gameengine/logic/GameStateManager.java \
     src/main/java/com/gameengine/logic/EnemySpawnManager.java \
+    src/main/java/com/gameengine/logic/FlowField.java \
     src/main/java/com/gameengine/logic/CombatSystem.java \
+    src/main/java/com/gameengine/logic/SpatialHashGrid.java \
+    src/main/java/com/gameengine/logic/ContinuousCollision.java \
+    src/main/java/com/gameengine/logic/CollisionSystem.java \
+    src/main/java/com/gameengine/logic/ContactCache.java \
     src/main/java/com/gameengine/logic/PhysicsManager.java \
     src/main/java/com/gameengine/logic/AdvancedGameLogic.java \
     src/main/java/com/gameengine/scene/Scene.java \
+    src/main/java/com/gameengine/scene/SceneQuery.java \
     src/main/java/com/gameengine/characters/Player.java \
     src/main/java/com/gameengine/characters/CharacterFactory.java \
+    src/main/java/com/gameengine/characters/CollisionLayers.java \
     src/main/java/com/gameengine/characters/enemies/Enemy.java \
     src/main/java/com/gameengine/characters/enemies/Minion.java \
     src/main/java/com/gameengine/characters/enemies/Boss.java \
@@ -45,7 +63,13 @@ javac -encoding UTF-8 -d build/classes \
     src/main/java/com/gameengine/characters/projectiles/Cannonball.java \
     src/main/java/com/gameengine/characters/projectiles/Bomb.java \
     src/main/java/com/gameengine/example/scene/GameScene.java \
-    src/main/java/com/gameengine/example/GameExample.java
+    src/main/java/com/gameengine/example/GameExample.java \
+    src/main/java/com/gameengine/example/ComponentUpdateBenchmark.java \
+    src/main/java/com/gameengine/example/Benchmark.java \
+    src/main/java/com/gameengine/example/PhysicsTimestepCheck.java \
+    src/main/java/com/gameengine/example/PhysicsUpdateBenchmark.java \
+    src/main/java/com/gameengine/example/RasterBenchmark.java \
+    src/main/java/com/gameengine/example/RenderBenchmark.java
 
 if [ $? -eq 0 ]; then
     echo "编译成功！"
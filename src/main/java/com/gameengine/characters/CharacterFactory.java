@@ -1,9 +1,11 @@
 package com.gameengine.characters;
 
 import com.gameengine.components.AttackRangeComponent;
+import com.gameengine.components.ColliderComponent;
 import com.gameengine.components.LifetimeComponent;
 import com.gameengine.components.TransformComponent;
 import com.gameengine.core.GameObject;
+import com.gameengine.graphics.AssetManager;
 import com.gameengine.math.Vector2;
 import com.gameengine.characters.projectiles.Bullet;
 import com.gameengine.characters.projectiles.Cannonball;
@@ -18,6 +20,19 @@ import com.gameengine.characters.enemies.Boss;
  */
 public class CharacterFactory {
     
+    /**
+     * 预加载所有角色和投射物的精灵图像，避免生成时从磁盘解码
+     */
+    public static void preloadSprites() {
+        AssetManager assets = AssetManager.getInstance();
+        assets.preload(Player.SPRITE_PATH, Player.SPRITE_WIDTH, Player.SPRITE_HEIGHT);
+        assets.preload(Minion.SPRITE_PATH, Minion.SPRITE_WIDTH, Minion.SPRITE_HEIGHT);
+        assets.preload(Boss.SPRITE_PATH, Boss.SPRITE_WIDTH, Boss.SPRITE_HEIGHT);
+        assets.preload(Bullet.SPRITE_PATH, Bullet.SPRITE_WIDTH, Bullet.SPRITE_HEIGHT);
+        assets.preload(Cannonball.SPRITE_PATH, Cannonball.SPRITE_WIDTH, Cannonball.SPRITE_HEIGHT);
+        assets.preload(Bomb.SPRITE_PATH, Bomb.SPRITE_WIDTH, Bomb.SPRITE_HEIGHT);
+    }
+    
     /**
      * 创建玩家
      */
@@ -82,6 +97,7 @@ public class CharacterFactory {
         GameObject meleeArea = new GameObject("Melee", "MeleeAttack");
         meleeArea.addComponent(new TransformComponent(new Vector2(position.x, position.y)));
         meleeArea.addComponent(new LifetimeComponent(Player.getMeleeAttackDuration() / 6)); // 使用攻击持续时间的1/6
+        addMeleeCollider(meleeArea);
         
         return meleeArea;
     }
@@ -99,6 +115,7 @@ public class CharacterFactory {
         GameObject meleeArea = new GameObject("EnemyMelee", "EnemyMeleeAttack");
         meleeArea.addComponent(new TransformComponent(new Vector2(position.x, position.y)));
         meleeArea.addComponent(new LifetimeComponent(Player.getMeleeAttackDuration() / 6)); // 使用攻击持续时间的1/6
+        addMeleeCollider(meleeArea);
         
         return attackRange; // 返回攻击范围效果，攻击判定区域需要单独添加
     }
@@ -110,6 +127,15 @@ public class CharacterFactory {
         GameObject meleeArea = new GameObject("Melee", tag);
         meleeArea.addComponent(new TransformComponent(new Vector2(position.x, position.y)));
         meleeArea.addComponent(new LifetimeComponent(Player.getMeleeAttackDuration() / 6)); // 使用攻击持续时间的1/6
+        addMeleeCollider(meleeArea);
         return meleeArea;
     }
+    
+    // 按判定区域的标签添加碰撞体
+    private static void addMeleeCollider(GameObject meleeArea) {
+        ColliderComponent collider = CollisionLayers.createMeleeCollider(meleeArea.getTag());
+        if (collider != null) {
+            meleeArea.addComponent(collider);
+        }
+    }
 }
@@ -0,0 +1,60 @@
+package com.gameengine.characters;
+
+import com.gameengine.characters.enemies.Enemy;
+import com.gameengine.characters.projectiles.Bomb;
+import com.gameengine.characters.projectiles.Bullet;
+import com.gameengine.characters.projectiles.Cannonball;
+import com.gameengine.components.ColliderComponent;
+
+/**
+ * 游戏中的碰撞层
+ * 每层占一个二进制位；攻击类对象的mask是它能命中的层，玩家和敌人只作为目标（mask为0）。
+ */
+public final class CollisionLayers {
+    public static final int PLAYER = 1;
+    public static final int ENEMY = 1 << 1;
+    public static final int PLAYER_BULLET = 1 << 2;
+    public static final int PLAYER_CANNONBALL = 1 << 3;
+    public static final int PLAYER_MELEE = 1 << 4;
+    public static final int ENEMY_BULLET = 1 << 5;
+    public static final int ENEMY_MELEE = 1 << 6;
+    public static final int BOSS_BOMB = 1 << 7;
+
+    private CollisionLayers() {
+    }
+
+    /**
+     * 按投射物标签创建碰撞体，只在创建对象时调用一次
+     * 子弹的碰撞半径为命中距离，炮弹和炸弹为触发爆炸的扫描距离
+     * @return 未知标签返回null
+     */
+    public static ColliderComponent createProjectileCollider(String tag) {
+        switch (tag) {
+            case "PlayerProjectile":
+                return new ColliderComponent(PLAYER_BULLET, ENEMY, Bullet.getBulletRange());
+            case "EnemyProjectile":
+                return new ColliderComponent(ENEMY_BULLET, PLAYER, Bullet.getBulletRange());
+            case "PlayerCannonball":
+                return new ColliderComponent(PLAYER_CANNONBALL, ENEMY, Cannonball.getCannonballScanRange());
+            case "BossBomb":
+                return new ColliderComponent(BOSS_BOMB, PLAYER, Bomb.getBombScanRange());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 按近战判定区域标签创建碰撞体，只在创建对象时调用一次
+     * @return 未知标签返回null
+     */
+    public static ColliderComponent createMeleeCollider(String tag) {
+        switch (tag) {
+            case "MeleeAttack":
+                return new ColliderComponent(PLAYER_MELEE, ENEMY, Player.getMeleeRange());
+            case "EnemyMeleeAttack":
+                return new ColliderComponent(ENEMY_MELEE, PLAYER, Enemy.getMeleeRangeStatic());
+            default:
+                return null;
+        }
+    }
+}
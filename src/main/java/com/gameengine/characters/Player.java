@@ -14,8 +14,9 @@ public class Player extends GameObject {
     private static final float CANNON_COOLDOWN = 3.0f;
 
     // 渲染相关常量
-    private static final int SPRITE_WIDTH = 40;
-    private static final int SPRITE_HEIGHT = 40;
+    public static final String SPRITE_PATH = "resources/player.png";
+    public static final int SPRITE_WIDTH = 40;
+    public static final int SPRITE_HEIGHT = 40;
     
     // 攻击相关常量
     private static final float MELEE_RANGE = 60.0f;
@@ -41,7 +42,8 @@ public class Player extends GameObject {
         PhysicsComponent physics = addComponent(new PhysicsComponent(MASS));
         physics.setFriction(FRICTION); // 降低摩擦力
         addComponent(new HealthComponent(HEALTH));
-        addComponent(new SpriteComponent("resources/player.png", SPRITE_WIDTH, SPRITE_HEIGHT));
+        addComponent(new SpriteComponent(SPRITE_PATH, SPRITE_WIDTH, SPRITE_HEIGHT));
+        addComponent(new ColliderComponent(CollisionLayers.PLAYER, 0, 0)); // 只作为敌人攻击的目标
     }
     
     @Override
@@ -11,8 +11,9 @@ public class Boss extends Enemy {
     private static final int BOSS_HEALTH = 150;
     private static final float BOSS_MOVE_FORCE = 30.0f;
     private static final float BOSS_BOMB_COOLDOWN = 3.0f;
-    private static final int SPRITE_WIDTH = 60;
-    private static final int SPRITE_HEIGHT = 60;
+    public static final String SPRITE_PATH = "resources/boss.png";
+    public static final int SPRITE_WIDTH = 60;
+    public static final int SPRITE_HEIGHT = 60;
     private float bombCooldown = BOSS_BOMB_COOLDOWN;
     
     public Boss(Vector2 position) {
@@ -50,7 +51,7 @@ public class Boss extends Enemy {
     
     @Override
     protected String getSpritePath() {
-        return "resources/boss.png"; // 假设有boss图片
+        return SPRITE_PATH; // 假设有boss图片
     }
     
     @Override
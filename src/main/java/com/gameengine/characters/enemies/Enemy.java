@@ -1,7 +1,9 @@
 package com.gameengine.characters.enemies;
 
+import com.gameengine.characters.CollisionLayers;
 import com.gameengine.components.*;
 import com.gameengine.core.GameObject;
+import com.gameengine.logic.FlowField;
 import com.gameengine.scene.Scene;
 import com.gameengine.math.Vector2;
 
@@ -20,6 +22,8 @@ public abstract class Enemy extends GameObject {
     protected float rangedAttackCooldown;
     protected float meleeAttackCooldown;
     protected Random random;
+    private final Vector2 direction = new Vector2(); // 复用的朝向玩家方向
+    private final Vector2 steering = new Vector2(); // 复用的移动方向
     
     public Enemy(Vector2 position, String name, String tag) {
         super(name, tag);
@@ -30,6 +34,7 @@ public abstract class Enemy extends GameObject {
         PhysicsComponent physics = addComponent(new PhysicsComponent(getMass()));
         physics.setFriction(FRICTION);
         addComponent(new HealthComponent(getHealth()));
+        addComponent(new ColliderComponent(CollisionLayers.ENEMY, 0, 0)); // 只作为玩家攻击的目标
         
         // 初始化攻击冷却
         this.rangedAttackCooldown = RANGED_ATTACK_COOLDOWN;
@@ -42,7 +47,8 @@ public abstract class Enemy extends GameObject {
         super.update(deltaTime);
         
         if (!isActive()) return;
-        if (hasComponent(HealthComponent.class) && !getComponent(HealthComponent.class).isAlive()) return;
+        HealthComponent health = getComponent(HealthComponent.class);
+        if (health != null && !health.isAlive()) return;
         
         Scene currentScene = getScene();
         if (currentScene == null) return;
@@ -55,12 +61,15 @@ public abstract class Enemy extends GameObject {
         PhysicsComponent myPhysics = getComponent(PhysicsComponent.class);
 
         if (myTransform != null && playerTransform != null && myPhysics != null) {
-            Vector2 direction = playerTransform.getPosition().subtract(myTransform.getPosition());
+            direction.set(playerTransform.getX() - myTransform.getX(), playerTransform.getY() - myTransform.getY());
             float distance = direction.magnitude();
             
-            // 移动逻辑
-            if (distance > 0) {
-                myPhysics.addForce(direction.normalize().multiply(getMoveForce()));
+            // 移动逻辑：沿共用流场移动，靠近玩家或流场不可用时直接朝玩家移动
+            if (FlowField.getInstance().sample(myTransform.getX(), myTransform.getY(), steering)) {
+                myPhysics.addForce(steering.x * getMoveForce(), steering.y * getMoveForce());
+            } else if (distance > 0) {
+                float scale = getMoveForce() / distance;
+                myPhysics.addForce(direction.x * scale, direction.y * scale);
             }
             
             // 更新攻击冷却时间
@@ -10,8 +10,9 @@ public class Minion extends Enemy {
     private static final float MINION_MASS = 0.8f;
     private static final int MINION_HEALTH = 30;
     private static final float MINION_MOVE_FORCE = 50.0f;
-    private static final int SPRITE_WIDTH = 40;
-    private static final int SPRITE_HEIGHT = 40;
+    public static final String SPRITE_PATH = "resources/enemy.png";
+    public static final int SPRITE_WIDTH = 40;
+    public static final int SPRITE_HEIGHT = 40;
     
     public Minion(Vector2 position) {
         super(position, "Minion", "Minion");
@@ -35,7 +36,7 @@ public class Minion extends Enemy {
     
     @Override
     protected String getSpritePath() {
-        return "resources/enemy.png";
+        return SPRITE_PATH;
     }
     
     @Override
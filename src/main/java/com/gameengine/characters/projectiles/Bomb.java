@@ -14,8 +14,9 @@ public class Bomb extends Projectile {
     private static final float BOMB_SCAN_RANGE = 30.0f; // 扫描距离（碰撞检测范围）
     private static final float BOMB_ATTACK_RANGE = 100.0f; // 攻击距离（爆炸效果范围）
     private static final float BOMB_COOLDOWN = 3.0f;
-    private static final int SPRITE_WIDTH = 20;
-    private static final int SPRITE_HEIGHT = 20;
+    public static final String SPRITE_PATH = "resources/bomb.png";
+    public static final int SPRITE_WIDTH = 20;
+    public static final int SPRITE_HEIGHT = 20;
     
     // 爆炸效果相关常量
     private static final float BOMB_EXPLOSION_DURATION = 0.8f;
@@ -29,7 +30,7 @@ public class Bomb extends Projectile {
     
     @Override
     protected String getSpritePath() {
-        return "resources/bomb.png"; // 假设有炸弹图片
+        return SPRITE_PATH; // 假设有炸弹图片
     }
     
     @Override
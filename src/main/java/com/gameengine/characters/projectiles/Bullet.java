@@ -13,8 +13,9 @@ public class Bullet extends Projectile {
     private static final int BULLET_DAMAGE = 15;
     private static final float BULLET_RANGE = 20.0f;
     private static final float BULLET_COOLDOWN = 0.8f;
-    private static final int SPRITE_WIDTH = 15;
-    private static final int SPRITE_HEIGHT = 15;
+    public static final String SPRITE_PATH = "resources/projectile.png";
+    public static final int SPRITE_WIDTH = 15;
+    public static final int SPRITE_HEIGHT = 15;
     public Bullet(Vector2 start, Vector2 target, String tag) {
         super(start, target, tag, 
               BULLET_SPEED, BULLET_LIFETIME, BULLET_MASS, 
@@ -23,7 +24,7 @@ public class Bullet extends Projectile {
     
     @Override
     protected String getSpritePath() {
-        return "resources/projectile.png";
+        return SPRITE_PATH;
     }
     
     @Override
@@ -14,8 +14,9 @@ public class Cannonball extends Projectile {
     private static final float CANNONBALL_SCAN_RANGE = 30.0f; // 扫描距离（碰撞检测范围）
     private static final float CANNONBALL_ATTACK_RANGE = 100.0f; // 攻击距离（爆炸效果范围）
     private static final float CANNONBALL_COOLDOWN = 3.0f;
-    private static final int SPRITE_WIDTH = 25;
-    private static final int SPRITE_HEIGHT = 25;
+    public static final String SPRITE_PATH = "resources/cannonball.png";
+    public static final int SPRITE_WIDTH = 25;
+    public static final int SPRITE_HEIGHT = 25;
     // 爆炸效果相关常量
     private static final float CANNONBALL_EXPLOSION_DURATION = 0.5f;
     private static final float CANNONBALL_EXPLOSION_RADIUS = CANNONBALL_ATTACK_RANGE; // 爆炸半径与攻击距离一致
@@ -28,7 +29,7 @@ public class Cannonball extends Projectile {
     
     @Override
     protected String getSpritePath() {
-        return "resources/cannonball.png"; // 假设有炮弹图片
+        return SPRITE_PATH; // 假设有炮弹图片
     }
     
     @Override
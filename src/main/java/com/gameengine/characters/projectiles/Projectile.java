@@ -1,5 +1,6 @@
 package com.gameengine.characters.projectiles;
 
+import com.gameengine.characters.CollisionLayers;
 import com.gameengine.components.*;
 import com.gameengine.core.GameObject;
 import com.gameengine.math.Vector2;
@@ -49,6 +50,12 @@ public abstract class Projectile extends GameObject {
         
         // 设置生命周期
         addComponent(new LifetimeComponent(lifetime));
+        
+        // 按标签确定碰撞层，之后的碰撞检测不再比较标签
+        ColliderComponent collider = CollisionLayers.createProjectileCollider(tag);
+        if (collider != null) {
+            addComponent(collider);
+        }
     }
     
     /**
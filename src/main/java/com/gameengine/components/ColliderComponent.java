@@ -0,0 +1,68 @@
+package com.gameengine.components;
+
+import com.gameengine.core.Component;
+
+/**
+ * 碰撞体组件
+ * layer是对象所在的碰撞层（单个二进制位），mask是它要检测的目标层的位集合。
+ * 碰撞是有向的：A的mask包含B的layer时才检测(A, B)这一对，mask为0的碰撞体只作为目标被检测。
+ * 碰撞体视为以变换位置为圆心、radius为半径的圆，检测和分发由CollisionSystem完成。
+ */
+public class ColliderComponent extends Component<ColliderComponent> {
+    private final int layer;
+    private int mask;
+    private float radius;
+
+    /**
+     * @param layer 所在碰撞层，必须只有一个二进制位
+     * @param mask 要检测的目标层
+     * @param radius 碰撞半径
+     */
+    public ColliderComponent(int layer, int mask, float radius) {
+        if (Integer.bitCount(layer) != 1) {
+            throw new IllegalArgumentException("碰撞层必须只有一个二进制位: " + Integer.toBinaryString(layer));
+        }
+        this.layer = layer;
+        this.mask = mask;
+        this.radius = Math.max(0, radius);
+    }
+
+    @Override
+    public void initialize() {
+    }
+
+    @Override
+    public void update(float deltaTime) {
+    }
+
+    @Override
+    public void render() {
+    }
+
+    public int getLayer() {
+        return layer;
+    }
+
+    /**
+     * 获取碰撞层的位序号（0-31）
+     */
+    public int getLayerIndex() {
+        return Integer.numberOfTrailingZeros(layer);
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public void setMask(int mask) {
+        this.mask = mask;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public void setRadius(float radius) {
+        this.radius = Math.max(0, radius);
+    }
+}
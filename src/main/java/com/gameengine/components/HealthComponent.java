@@ -2,7 +2,6 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
-import com.gameengine.math.Vector2;
 
 public class HealthComponent extends Component<HealthComponent> {
     private int maxHealth;
@@ -43,16 +42,8 @@ public class HealthComponent extends Component<HealthComponent> {
         if (owner != null) {
             TransformComponent transform = owner.getComponent(TransformComponent.class);
             if (transform != null) {
-                // 获取或创建粒子系统组件
-                ParticleSystemComponent particleSystem = owner.getComponent(ParticleSystemComponent.class);
-                if (particleSystem == null) {
-                    particleSystem = new ParticleSystemComponent();
-                    owner.addComponent(particleSystem);
-                }
-                
                 // 创建伤害粒子效果
-                Vector2 position = transform.getPosition();
-                particleSystem.createDamageEffect(position, 8); // 8个粒子
+                ParticleEngine.getInstance().emitDamage(transform.getX(), transform.getY(), 8); // 8个粒子
             }
         }
     }
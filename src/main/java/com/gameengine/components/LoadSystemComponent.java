@@ -260,7 +260,7 @@ public class LoadSystemComponent extends Component<LoadSystemComponent> {
                     // 设置正确的位置
                     TransformComponent transform = projectile.getComponent(TransformComponent.class);
                     if (transform != null) {
-                        transform.setPosition(projectileData.position);
+                        transform.teleport(projectileData.position);
                     }
                     
                     // 设置正确的速度
@@ -2,6 +2,7 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.SwingDialogs;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.input.InputManager;
 import com.gameengine.scene.Scene;
@@ -170,20 +171,22 @@ public class MainMenuComponent extends Component<MainMenuComponent> {
     private void loadGame() {
         System.out.println("加载存档");
         
-        // 创建文件选择器
-        JFileChooser fileChooser = new JFileChooser();
-        fileChooser.setCurrentDirectory(new File("resources/saves"));
-        fileChooser.setDialogTitle("选择存档文件");
-        
-        // 设置文件过滤器，只显示JSONL文件
-        FileNameExtensionFilter filter = new FileNameExtensionFilter("JSONL存档文件", "jsonl");
-        fileChooser.setFileFilter(filter);
-        
-        // 显示文件选择对话框
-        int result = fileChooser.showOpenDialog(null);
+        // 文件选择器在事件分发线程中创建和显示，游戏循环线程等待选择结果
+        File selectedFile = SwingDialogs.callOnEventThread(() -> {
+            JFileChooser fileChooser = new JFileChooser();
+            fileChooser.setCurrentDirectory(new File("resources/saves"));
+            fileChooser.setDialogTitle("选择存档文件");
+            
+            // 设置文件过滤器，只显示JSONL文件
+            FileNameExtensionFilter filter = new FileNameExtensionFilter("JSONL存档文件", "jsonl");
+            fileChooser.setFileFilter(filter);
+            
+            // 显示文件选择对话框
+            int result = fileChooser.showOpenDialog(null);
+            return result == JFileChooser.APPROVE_OPTION ? fileChooser.getSelectedFile() : null;
+        });
         
-        if (result == JFileChooser.APPROVE_OPTION) {
-            File selectedFile = fileChooser.getSelectedFile();
+        if (selectedFile != null) {
             System.out.println("选择的存档文件: " + selectedFile.getAbsolutePath());
             
             // 通知场景加载游戏
@@ -0,0 +1,201 @@
+package com.gameengine.components;
+
+/**
+ * 全局粒子引擎
+ * 所有粒子存放在固定容量的基本类型数组中（位置、速度、剩余寿命、大小、颜色），
+ * 粒子死亡时用最后一个粒子填补其位置，活跃粒子始终连续存放在[0, count)。
+ * 游戏对象通过emit系列方法发射粒子，由Scene每帧统一更新，渲染器直接遍历这些数组绘制。
+ * 容量用尽时新发射的粒子会被丢弃。
+ */
+public class ParticleEngine {
+    private static final int DEFAULT_CAPACITY = 32768;
+    private static ParticleEngine instance;
+
+    // 粒子数据
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] life;
+    private float[] maxLife;
+    private float[] size;
+    private int[] rgb; // 0xRRGGBB，透明度由剩余寿命决定
+    private int count;
+    private int seed = 0x2545F491; // 随机数状态（xorshift）
+
+    private ParticleEngine(int capacity) {
+        allocate(capacity);
+    }
+
+    public static ParticleEngine getInstance() {
+        if (instance == null) {
+            instance = new ParticleEngine(DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * 更新所有粒子，移除寿命耗尽的粒子
+     */
+    public void update(float deltaTime) {
+        int i = 0;
+        while (i < count) {
+            life[i] -= deltaTime;
+            if (life[i] <= 0) {
+                // 用最后一个尚未更新的粒子填补，它在下一次循环中更新
+                int last = --count;
+                x[i] = x[last];
+                y[i] = y[last];
+                vx[i] = vx[last];
+                vy[i] = vy[last];
+                life[i] = life[last];
+                maxLife[i] = maxLife[last];
+                size[i] = size[last];
+                rgb[i] = rgb[last];
+                continue;
+            }
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+            i++;
+        }
+    }
+
+    /**
+     * 发射一个粒子
+     * @return 容量已满时返回false
+     */
+    public boolean emit(float px, float py, float velocityX, float velocityY, float lifetime, float particleSize, int color) {
+        if (count == x.length || lifetime <= 0) {
+            return false;
+        }
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        life[i] = lifetime;
+        maxLife[i] = lifetime;
+        size[i] = particleSize;
+        rgb[i] = color & 0xFFFFFF;
+        return true;
+    }
+
+    /**
+     * 从一点向随机方向发射一圈粒子，速度、寿命和大小在给定范围内随机
+     * @param color 0xRRGGBB颜色
+     * @return 实际发射的粒子数量
+     */
+    public int emitBurst(float px, float py, int particleCount,
+                         float minSpeed, float maxSpeed,
+                         float minLifetime, float maxLifetime,
+                         float minSize, float maxSize, int color) {
+        int emitted = 0;
+        for (int n = 0; n < particleCount; n++) {
+            float angle = nextFloat() * 2 * (float) Math.PI;
+            float speed = minSpeed + nextFloat() * (maxSpeed - minSpeed);
+            float lifetime = minLifetime + nextFloat() * (maxLifetime - minLifetime);
+            float particleSize = minSize + nextFloat() * (maxSize - minSize);
+            if (!emit(px, py, (float) Math.cos(angle) * speed, (float) Math.sin(angle) * speed,
+                      lifetime, particleSize, color)) {
+                break;
+            }
+            emitted++;
+        }
+        return emitted;
+    }
+
+    /**
+     * 发射受伤效果：红色粒子，速度50-150像素/秒，寿命0.3-0.7秒，大小2-5像素
+     */
+    public int emitDamage(float px, float py, int particleCount) {
+        return emitBurst(px, py, particleCount, 50, 150, 0.3f, 0.7f, 2, 5, 0xFF0000);
+    }
+
+    /**
+     * 清除所有粒子
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * 获取活跃粒子数量，下标[0, count)的粒子有效
+     */
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return x.length;
+    }
+
+    /**
+     * 修改容量，超出新容量的粒子会被丢弃
+     */
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("粒子容量必须为正数: " + capacity);
+        }
+        allocate(capacity);
+        count = Math.min(count, capacity);
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    /**
+     * 获取粒子当前透明度，随剩余寿命从1降到0
+     */
+    public float getAlpha(int index) {
+        return life[index] / maxLife[index];
+    }
+
+    /**
+     * 获取粒子当前大小，随剩余寿命逐渐缩小
+     */
+    public float getSize(int index) {
+        return size[index] * (life[index] / maxLife[index]);
+    }
+
+    /**
+     * 获取粒子颜色（0xRRGGBB）
+     */
+    public int getColor(int index) {
+        return rgb[index];
+    }
+
+    private float nextFloat() {
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return (seed >>> 8) * 0x1.0p-24f;
+    }
+
+    private void allocate(int capacity) {
+        x = resize(x, capacity);
+        y = resize(y, capacity);
+        vx = resize(vx, capacity);
+        vy = resize(vy, capacity);
+        life = resize(life, capacity);
+        maxLife = resize(maxLife, capacity);
+        size = resize(size, capacity);
+        int[] newRgb = new int[capacity];
+        if (rgb != null) {
+            System.arraycopy(rgb, 0, newRgb, 0, Math.min(count, capacity));
+        }
+        rgb = newRgb;
+    }
+
+    private float[] resize(float[] array, int capacity) {
+        float[] result = new float[capacity];
+        if (array != null) {
+            System.arraycopy(array, 0, result, 0, Math.min(count, capacity));
+        }
+        return result;
+    }
+}
@@ -6,19 +6,26 @@ import com.gameengine.math.Vector2;
 
 /**
  * 物理组件，处理物理运动
+ * 积分与帧率无关：摩擦力按指数衰减计算，30Hz和240Hz下同样的力产生同样的轨迹，见PhysicsIntegrator
  */
 public class PhysicsComponent extends Component<PhysicsComponent> {
     private float mass;
     private Vector2 velocity;
     private Vector2 acceleration;
-    private float friction;
+    private float friction; // 60Hz下每次模拟保留的速度比例
+    private float damping;  // 由friction换算的衰减率
+    private float maxSpeed; // 速度上限，0表示不限制
+    private int maxSubsteps = 1;
     private Vector2 force = new Vector2(); // 新增: 用于累加力
+    private final PhysicsIntegrator integrator = new PhysicsIntegrator();
+    int slot = -1; // 紧凑存储中的槽位，-1表示使用自身字段
     
     public PhysicsComponent() {
         this.velocity = new Vector2();
         this.acceleration = new Vector2();
         this.mass = 1.0f;
         this.friction = 0.9f;
+        this.damping = PhysicsIntegrator.dampingRate(friction);
     }
     
     public PhysicsComponent(float mass) {
@@ -26,31 +33,54 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         this.velocity = new Vector2();
         this.acceleration = new Vector2();
         this.friction = 0.98f;
+        this.damping = PhysicsIntegrator.dampingRate(friction);
     }
     
     @Override
     public void initialize() {
-        // 初始化物理组件
+        PhysicsStorage storage = PhysicsStorage.getInstance();
+        if (!storage.isEnabled() || slot >= 0) return;
+        
+        // 与同一对象的变换组件共享槽位
+        TransformComponent transform = owner != null ? owner.getComponent(TransformComponent.class) : null;
+        if (transform != null && transform.slot >= 0) {
+            slot = transform.slot;
+            storage.retain(slot);
+        } else {
+            slot = storage.acquire();
+        }
+        storage.velX[slot] = velocity.x;
+        storage.velY[slot] = velocity.y;
+        storage.accX[slot] = acceleration.x;
+        storage.accY[slot] = acceleration.y;
+        storage.forceX[slot] = force.x;
+        storage.forceY[slot] = force.y;
+        storage.mass[slot] = mass;
+        storage.friction[slot] = friction;
+        storage.damping[slot] = damping;
+        storage.maxSpeed[slot] = maxSpeed;
+        storage.maxSubsteps[slot] = maxSubsteps;
+        storage.setHasPhysics(slot, enabled);
     }
     
     @Override
     public void update(float deltaTime) {
         if (!enabled) return;
+        if (slot >= 0) return; // 由PhysicsStorage.integrate统一积分
         
         // 应用累加的力
         if (mass > 0) {
-            acceleration = force.divide(mass);
+            acceleration.set(force.x / mass, force.y / mass);
         }
         
-        // 更新速度和位置
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        velocity = velocity.multiply(friction); // 应用摩擦力
+        // 更新速度和位置，摩擦力按指数衰减
+        integrator.integrate(velocity.x, velocity.y, acceleration.x, acceleration.y,
+                             damping, maxSpeed, maxSubsteps, deltaTime);
+        velocity.set(integrator.vx, integrator.vy);
 
         TransformComponent transform = owner.getComponent(TransformComponent.class);
         if (transform != null) {
-            Vector2 delta = velocity.multiply(deltaTime);
-            // System.out.println("[DEBUG] velocity=" + velocity + ", delta=" + delta);
-            transform.translate(delta);
+            transform.translate(integrator.dx, integrator.dy);
         }
 
         // 重置力
@@ -63,11 +93,47 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         // 物理组件不直接渲染
     }
     
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (slot >= 0) {
+            // 把最后的状态写回字段，销毁后仍可读取
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            velocity.set(storage.velX[slot], storage.velY[slot]);
+            acceleration.set(storage.accX[slot], storage.accY[slot]);
+            force.set(storage.forceX[slot], storage.forceY[slot]);
+            storage.setHasPhysics(slot, false);
+            storage.release(slot);
+            slot = -1;
+        }
+    }
+    
+    @Override
+    public void setEnabled(boolean enabled) {
+        super.setEnabled(enabled);
+        if (slot >= 0) {
+            PhysicsStorage.getInstance().setHasPhysics(slot, enabled);
+        }
+    }
+    
     /**
      * 施加一个力
      */
     public void addForce(Vector2 force) {
-        this.force = this.force.add(force);
+        addForce(force.x, force.y);
+    }
+    
+    /**
+     * 施加一个力
+     */
+    public void addForce(float fx, float fy) {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.forceX[slot] += fx;
+            storage.forceY[slot] += fy;
+            return;
+        }
+        this.force.addLocal(fx, fy);
     }
     
     /**
@@ -75,7 +141,13 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void applyForce(Vector2 force) {
         if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+            if (slot >= 0) {
+                PhysicsStorage storage = PhysicsStorage.getInstance();
+                storage.accX[slot] += force.x / mass;
+                storage.accY[slot] += force.y / mass;
+                return;
+            }
+            acceleration.addLocal(force.x / mass, force.y / mass);
         }
     }
     
@@ -84,7 +156,13 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void applyImpulse(Vector2 impulse) {
         if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+            if (slot >= 0) {
+                PhysicsStorage storage = PhysicsStorage.getInstance();
+                storage.velX[slot] += impulse.x / mass;
+                storage.velY[slot] += impulse.y / mass;
+                return;
+            }
+            velocity.addLocal(impulse.x / mass, impulse.y / mass);
         }
     }
     
@@ -92,21 +170,33 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 设置速度
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     /**
      * 设置速度
      */
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.velX[slot] = x;
+            storage.velY[slot] = y;
+            return;
+        }
+        this.velocity.set(x, y);
     }
     
     /**
      * 添加速度
      */
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.velX[slot] += delta.x;
+            storage.velY[slot] += delta.y;
+            return;
+        }
+        this.velocity.addLocal(delta);
     }
     
     /**
@@ -127,9 +217,37 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     
     /**
      * 设置摩擦力
+     * @param friction 60Hz下每次模拟保留的速度比例，1为无摩擦；其他帧率下换算为相同的最终速度和滑行距离
      */
     public void setFriction(float friction) {
         this.friction = Math.max(0, Math.min(1, friction));
+        this.damping = PhysicsIntegrator.dampingRate(this.friction);
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.friction[slot] = this.friction;
+            storage.damping[slot] = damping;
+        }
+    }
+    
+    /**
+     * 设置速度上限（像素/秒），0表示不限制
+     */
+    public void setMaxSpeed(float maxSpeed) {
+        this.maxSpeed = Math.max(0, maxSpeed);
+        if (slot >= 0) {
+            PhysicsStorage.getInstance().maxSpeed[slot] = this.maxSpeed;
+        }
+    }
+    
+    /**
+     * 设置最多拆分的子步数，快速移动的物体每个子步最多移动PhysicsIntegrator.SUBSTEP_DISTANCE像素
+     * @param maxSubsteps 1表示不拆分
+     */
+    public void setMaxSubsteps(int maxSubsteps) {
+        this.maxSubsteps = Math.max(1, maxSubsteps);
+        if (slot >= 0) {
+            PhysicsStorage.getInstance().maxSubsteps[slot] = this.maxSubsteps;
+        }
     }
     
     /**
@@ -137,14 +255,36 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setMass(float mass) {
         this.mass = Math.max(0.1f, mass);
+        if (slot >= 0) {
+            PhysicsStorage.getInstance().mass[slot] = this.mass;
+        }
     }
     
     // Getters
     public Vector2 getVelocity() {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            return new Vector2(storage.velX[slot], storage.velY[slot]);
+        }
         return new Vector2(velocity);
     }
     
+    /**
+     * 把速度写入调用方提供的向量，不创建新对象
+     */
+    public Vector2 getVelocity(Vector2 out) {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            return out.set(storage.velX[slot], storage.velY[slot]);
+        }
+        return out.set(velocity);
+    }
+    
     public Vector2 getAcceleration() {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            return new Vector2(storage.accX[slot], storage.accY[slot]);
+        }
         return new Vector2(acceleration);
     }
     
@@ -156,6 +296,14 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         return friction;
     }
     
+    public float getMaxSpeed() {
+        return maxSpeed;
+    }
+    
+    public int getMaxSubsteps() {
+        return maxSubsteps;
+    }
+    
     public boolean isUseGravity() {
         // This method is no longer used for gravity, but kept for consistency
         return false;
@@ -0,0 +1,103 @@
+package com.gameengine.components;
+
+/**
+ * 物理积分器
+ * 摩擦力按指数衰减建模：经过dt秒速度乘以e^(-k*dt)，与步长无关。
+ * friction沿用原来60Hz下每次模拟把速度乘以friction的含义，换算为衰减率k = 60 * (1 - friction) / friction，
+ * 这样恒定加速度a下的最终速度a/k和无外力时的滑行距离v/k都与原来60Hz下的结果完全相同，手感不变。
+ * 每一步内加速度视为常量，速度和位移按 v' = a - k*v 的解析解推进，
+ * 同样的力作用同样的时间，无论按30、60还是240Hz分步，得到的速度和位置都相同。
+ * 可选的子步把快速移动的物体一次的移动拆成多段，速度上限在每个子步结束时施加。
+ * PhysicsComponent和PhysicsStorage共用这里的计算，结果写入vx、vy、dx、dy。
+ */
+final class PhysicsIntegrator {
+    static final float REFERENCE_RATE = 60.0f; // friction对应的参考频率
+    static final float SUBSTEP_DISTANCE = 8.0f; // 开启子步时每个子步的最大移动距离（像素）
+
+    // 积分结果：新的速度和本次位移
+    float vx;
+    float vy;
+    float dx;
+    float dy;
+
+    /**
+     * 把60Hz下每次模拟的速度保留比例换算为每秒的衰减率
+     * 原来每次模拟 v = (v + a/60) * f，最终速度为 a*f / (60*(1-f))，取 k = 60*(1-f)/f 使 a/k 与之相等
+     */
+    static float dampingRate(float friction) {
+        if (friction >= 1) return 0;
+        if (friction <= 0) return Float.POSITIVE_INFINITY;
+        return REFERENCE_RATE * (1 - friction) / friction;
+    }
+
+    /**
+     * 推进一个物体
+     * @param damping 衰减率，见dampingRate
+     * @param maxSpeed 速度上限，0表示不限制
+     * @param maxSubsteps 最多拆分的子步数，1表示不拆分
+     */
+    void integrate(float velocityX, float velocityY, float accelX, float accelY,
+                   float damping, float maxSpeed, int maxSubsteps, float deltaTime) {
+        vx = velocityX;
+        vy = velocityY;
+        dx = 0;
+        dy = 0;
+        if (deltaTime <= 0) return;
+
+        int substeps = substeps(accelX, accelY, maxSubsteps, deltaTime);
+        float step = deltaTime / substeps;
+
+        // 一步内的系数：速度保留比例、初速度和加速度对位移的贡献
+        double kdt = (double) damping * step;
+        float decay, travel, accelTravel;
+        if (Double.isInfinite(kdt)) {
+            decay = 0;
+            travel = 0;
+            accelTravel = 0;
+        } else if (kdt < 1e-4) {
+            // 阻尼很小时用泰勒展开，避免除以接近0的衰减率
+            decay = (float) (1 - kdt);
+            travel = (float) (step * (1 - kdt / 2));
+            accelTravel = (float) (step * step / 2 * (1 - kdt / 3));
+        } else {
+            double e = Math.exp(-kdt);
+            double t = (1 - e) / damping;
+            decay = (float) e;
+            travel = (float) t;
+            accelTravel = (float) ((step - t) / damping);
+        }
+
+        float maxStepDistance = maxSpeed * step;
+        for (int i = 0; i < substeps; i++) {
+            float sx = vx * travel + accelX * accelTravel;
+            float sy = vy * travel + accelY * accelTravel;
+            vx = vx * decay + accelX * travel;
+            vy = vy * decay + accelY * travel;
+            if (maxSpeed > 0) {
+                float speedSq = vx * vx + vy * vy;
+                if (speedSq > maxSpeed * maxSpeed) {
+                    float scale = maxSpeed / (float) Math.sqrt(speedSq);
+                    vx *= scale;
+                    vy *= scale;
+                }
+                float distanceSq = sx * sx + sy * sy;
+                if (distanceSq > maxStepDistance * maxStepDistance) {
+                    float scale = maxStepDistance / (float) Math.sqrt(distanceSq);
+                    sx *= scale;
+                    sy *= scale;
+                }
+            }
+            dx += sx;
+            dy += sy;
+        }
+    }
+
+    // 按本步可能的最大移动距离决定子步数
+    private int substeps(float accelX, float accelY, int maxSubsteps, float deltaTime) {
+        if (maxSubsteps <= 1) return 1;
+        float speed = (float) Math.sqrt(vx * vx + vy * vy)
+                + (float) Math.sqrt(accelX * accelX + accelY * accelY) * deltaTime;
+        int substeps = (int) Math.ceil(speed * deltaTime / SUBSTEP_DISTANCE);
+        return Math.max(1, Math.min(substeps, maxSubsteps));
+    }
+}
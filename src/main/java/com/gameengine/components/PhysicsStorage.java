@@ -0,0 +1,174 @@
+package com.gameengine.components;
+
+import java.util.Arrays;
+
+/**
+ * 变换与物理数据的紧凑存储（结构数组）
+ * 开启后，TransformComponent和PhysicsComponent的位置、速度、力、质量、摩擦力
+ * 存放在按实体槽位索引的连续float数组中，组件只作为这些数组的视图，
+ * 由integrate一次性完成所有物体的积分，代替逐个调用PhysicsComponent.update。
+ * 需要在创建游戏对象之前开启。
+ */
+public class PhysicsStorage {
+    private static final int INITIAL_CAPACITY = 256;
+    private static PhysicsStorage instance;
+
+    private boolean enabled = false;
+
+    // 变换数据
+    float[] posX;
+    float[] posY;
+    // 物理数据
+    float[] velX;
+    float[] velY;
+    float[] accX;
+    float[] accY;
+    float[] forceX;
+    float[] forceY;
+    float[] mass;
+    float[] friction;
+    float[] damping;   // 由friction换算的衰减率
+    float[] maxSpeed;  // 0表示不限制
+    int[] maxSubsteps;
+    // 槽位状态
+    private boolean[] hasTransform;
+    private boolean[] hasPhysics;
+    private int[] refCount;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount; // 已使用过的最大槽位数
+    private final PhysicsIntegrator integrator = new PhysicsIntegrator();
+
+    private PhysicsStorage() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    public static PhysicsStorage getInstance() {
+        if (instance == null) {
+            instance = new PhysicsStorage();
+        }
+        return instance;
+    }
+
+    /**
+     * 一次性积分所有同时拥有变换和物理数据的槽位，积分方式见PhysicsIntegrator
+     */
+    public void integrate(float deltaTime) {
+        for (int i = 0; i < slotCount; i++) {
+            if (!hasPhysics[i]) continue;
+
+            // 应用累加的力
+            if (mass[i] > 0) {
+                accX[i] = forceX[i] / mass[i];
+                accY[i] = forceY[i] / mass[i];
+            }
+
+            // 更新速度和位置
+            integrator.integrate(velX[i], velY[i], accX[i], accY[i],
+                                 damping[i], maxSpeed[i], maxSubsteps[i], deltaTime);
+            velX[i] = integrator.vx;
+            velY[i] = integrator.vy;
+            if (hasTransform[i]) {
+                posX[i] += integrator.dx;
+                posY[i] += integrator.dy;
+            }
+
+            // 重置力
+            forceX[i] = 0;
+            forceY[i] = 0;
+        }
+    }
+
+    /**
+     * 获取一个空槽位，引用计数为1
+     */
+    int acquire() {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == refCount.length) {
+                allocate(refCount.length * 2);
+            }
+            slot = slotCount++;
+        }
+        refCount[slot] = 1;
+        return slot;
+    }
+
+    /**
+     * 让另一个组件共享已有槽位
+     */
+    void retain(int slot) {
+        refCount[slot]++;
+    }
+
+    /**
+     * 释放槽位，引用计数归零后可被复用
+     */
+    void release(int slot) {
+        if (--refCount[slot] == 0) {
+            hasTransform[slot] = false;
+            hasPhysics[slot] = false;
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    void setHasTransform(int slot, boolean value) {
+        hasTransform[slot] = value;
+    }
+
+    void setHasPhysics(int slot, boolean value) {
+        hasPhysics[slot] = value;
+    }
+
+    private void allocate(int capacity) {
+        posX = grow(posX, capacity);
+        posY = grow(posY, capacity);
+        velX = grow(velX, capacity);
+        velY = grow(velY, capacity);
+        accX = grow(accX, capacity);
+        accY = grow(accY, capacity);
+        forceX = grow(forceX, capacity);
+        forceY = grow(forceY, capacity);
+        mass = grow(mass, capacity);
+        friction = grow(friction, capacity);
+        damping = grow(damping, capacity);
+        maxSpeed = grow(maxSpeed, capacity);
+        maxSubsteps = maxSubsteps == null ? new int[capacity] : Arrays.copyOf(maxSubsteps, capacity);
+        hasTransform = hasTransform == null ? new boolean[capacity] : Arrays.copyOf(hasTransform, capacity);
+        hasPhysics = hasPhysics == null ? new boolean[capacity] : Arrays.copyOf(hasPhysics, capacity);
+        refCount = refCount == null ? new int[capacity] : Arrays.copyOf(refCount, capacity);
+        if (freeSlots == null) {
+            freeSlots = new int[capacity];
+        }
+    }
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    /**
+     * 检查是否开启紧凑存储
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开启或关闭紧凑存储，只影响之后初始化的组件
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 获取正在使用的槽位数量
+     */
+    public int getActiveSlotCount() {
+        return slotCount - freeCount;
+    }
+}
@@ -2,6 +2,7 @@ package com.gameengine.components;
 
 import com.gameengine.core.Component;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.SwingDialogs;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
 import com.gameengine.characters.Player;
@@ -59,20 +60,22 @@ public class SaveSystemComponent extends Component<SaveSystemComponent> {
      */
     public boolean saveGame(Scene scene) {
         try {
-            // 打开文件选择器
-            JFileChooser fileChooser = new JFileChooser();
-            fileChooser.setCurrentDirectory(new File(SAVE_DIR));
-            fileChooser.setSelectedFile(new File(SAVE_FILE));
-            fileChooser.setFileFilter(new FileNameExtensionFilter("JSONL存档文件", "jsonl"));
-            fileChooser.setDialogTitle("保存游戏存档");
-            
-            int result = fileChooser.showSaveDialog(null);
-            if (result != JFileChooser.APPROVE_OPTION) {
+            // 文件选择器在事件分发线程中创建和显示，游戏循环线程等待选择结果
+            File selectedFile = SwingDialogs.callOnEventThread(() -> {
+                JFileChooser fileChooser = new JFileChooser();
+                fileChooser.setCurrentDirectory(new File(SAVE_DIR));
+                fileChooser.setSelectedFile(new File(SAVE_FILE));
+                fileChooser.setFileFilter(new FileNameExtensionFilter("JSONL存档文件", "jsonl"));
+                fileChooser.setDialogTitle("保存游戏存档");
+                
+                int result = fileChooser.showSaveDialog(null);
+                return result == JFileChooser.APPROVE_OPTION ? fileChooser.getSelectedFile() : null;
+            });
+            if (selectedFile == null) {
                 System.out.println("用户取消了保存操作");
                 return false;
             }
             
-            File selectedFile = fileChooser.getSelectedFile();
             String filePath = selectedFile.getAbsolutePath();
             
             // 确保文件扩展名为.jsonl
@@ -863,7 +866,7 @@ public class SaveSystemComponent extends Component<SaveSystemComponent> {
                     // 设置正确的位置
                     TransformComponent transform = projectile.getComponent(TransformComponent.class);
                     if (transform != null) {
-                        transform.setPosition(projectileData.position);
+                        transform.teleport(projectileData.position);
                     }
                     
                     // 设置正确的速度
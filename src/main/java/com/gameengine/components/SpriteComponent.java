@@ -1,10 +1,8 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
-import javax.imageio.ImageIO;
+import com.gameengine.graphics.AssetManager;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
 import java.awt.Image;
 
 public class SpriteComponent extends Component<SpriteComponent> {
@@ -21,13 +19,8 @@ public class SpriteComponent extends Component<SpriteComponent> {
 
     @Override
     public void initialize() {
-        try {
-            image = ImageIO.read(new File(imagePath));
-        } catch (IOException e) {
-            System.err.println("Error loading image: " + imagePath);
-            e.printStackTrace();
-            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB); // Placeholder
-        }
+        // Shared, already scaled to width x height; decoded only once per path
+        image = AssetManager.getInstance().getImage(imagePath, width, height);
     }
 
     @Override
@@ -11,6 +11,8 @@ public class TransformComponent extends Component<TransformComponent> {
     private Vector2 position;
     private Vector2 scale;
     private float rotation;
+    private float previousX, previousY; // 上一次模拟开始时的位置，用于渲染插值
+    int slot = -1; // 紧凑存储中的槽位，-1表示使用自身字段
     
     public TransformComponent() {
         this.position = new Vector2();
@@ -21,22 +23,41 @@ public class TransformComponent extends Component<TransformComponent> {
     public TransformComponent(Vector2 position) {
         this();
         this.position = new Vector2(position);
+        this.previousX = position.x;
+        this.previousY = position.y;
     }
     
     public TransformComponent(Vector2 position, Vector2 scale, float rotation) {
         this.position = new Vector2(position);
         this.scale = new Vector2(scale);
         this.rotation = rotation;
+        this.previousX = position.x;
+        this.previousY = position.y;
     }
     
     @Override
     public void initialize() {
-        // 初始化变换组件
+        PhysicsStorage storage = PhysicsStorage.getInstance();
+        if (!storage.isEnabled() || slot >= 0) return;
+        
+        // 与同一对象的物理组件共享槽位
+        PhysicsComponent physics = owner != null ? owner.getComponent(PhysicsComponent.class) : null;
+        if (physics != null && physics.slot >= 0) {
+            slot = physics.slot;
+            storage.retain(slot);
+        } else {
+            slot = storage.acquire();
+        }
+        storage.posX[slot] = position.x;
+        storage.posY[slot] = position.y;
+        storage.setHasTransform(slot, true);
     }
     
     @Override
     public void update(float deltaTime) {
-        // 变换组件通常不需要每帧更新
+        // 记录本次模拟之前的位置
+        previousX = getX();
+        previousY = getY();
     }
     
     @Override
@@ -44,18 +65,44 @@ public class TransformComponent extends Component<TransformComponent> {
         // 变换组件不直接渲染
     }
     
+    @Override
+    public void destroy() {
+        super.destroy();
+        if (slot >= 0) {
+            // 把最后的位置写回字段，销毁后仍可读取
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            position.set(storage.posX[slot], storage.posY[slot]);
+            storage.setHasTransform(slot, false);
+            storage.release(slot);
+            slot = -1;
+        }
+    }
+    
     /**
      * 移动到指定位置
      */
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        setPosition(newPosition);
     }
     
     /**
      * 移动相对距离
      */
     public void translate(Vector2 delta) {
-        this.position = this.position.add(delta);
+        translate(delta.x, delta.y);
+    }
+    
+    /**
+     * 移动相对距离
+     */
+    public void translate(float dx, float dy) {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.posX[slot] += dx;
+            storage.posY[slot] += dy;
+            return;
+        }
+        this.position.addLocal(dx, dy);
         // System.out.println("[DEBUG] position=" + this.position);
     }
     
@@ -89,11 +136,83 @@ public class TransformComponent extends Component<TransformComponent> {
     
     // Getters and Setters
     public Vector2 getPosition() {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            return new Vector2(storage.posX[slot], storage.posY[slot]);
+        }
         return new Vector2(position);
     }
     
+    /**
+     * 把位置写入调用方提供的向量，不创建新对象
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(getX(), getY());
+    }
+    
+    public float getX() {
+        return slot >= 0 ? PhysicsStorage.getInstance().posX[slot] : position.x;
+    }
+    
+    public float getY() {
+        return slot >= 0 ? PhysicsStorage.getInstance().posY[slot] : position.y;
+    }
+    
+    /**
+     * 获取本次模拟开始时的X坐标，与当前位置一起构成本次模拟的移动线段
+     */
+    public float getPreviousX() {
+        return previousX;
+    }
+    
+    public float getPreviousY() {
+        return previousY;
+    }
+    
+    /**
+     * 获取渲染插值后的X坐标
+     * @param alpha 插值系数，0为上一次模拟前的位置，1为当前位置
+     */
+    public float getInterpolatedX(float alpha) {
+        return previousX + (getX() - previousX) * alpha;
+    }
+    
+    /**
+     * 获取渲染插值后的Y坐标
+     */
+    public float getInterpolatedY(float alpha) {
+        return previousY + (getY() - previousY) * alpha;
+    }
+    
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        setPosition(position.x, position.y);
+    }
+    
+    /**
+     * 瞬移到指定位置，同时重置上一次位置，渲染时不会在新旧位置之间插值出拖影
+     * 用于传送、重置和从存档恢复
+     */
+    public void teleport(Vector2 position) {
+        setPosition(position.x, position.y);
+        resetPreviousPosition();
+    }
+    
+    /**
+     * 把上一次模拟开始时的位置设为当前位置
+     */
+    public void resetPreviousPosition() {
+        previousX = getX();
+        previousY = getY();
+    }
+    
+    public void setPosition(float x, float y) {
+        if (slot >= 0) {
+            PhysicsStorage storage = PhysicsStorage.getInstance();
+            storage.posX[slot] = x;
+            storage.posY[slot] = y;
+            return;
+        }
+        this.position.set(x, y);
     }
     
     public Vector2 getScale() {
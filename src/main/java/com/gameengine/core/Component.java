@@ -32,6 +32,7 @@ public abstract class Component<T extends Component<T>> {
     
     /**
      * 销毁组件
+     * 可能被调用多次，子类重写时需要保证重复调用无副作用
      */
     public void destroy() {
         this.enabled = false;
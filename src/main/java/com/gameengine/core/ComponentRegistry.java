@@ -0,0 +1,61 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组件类型注册表
+ * 为每个Component子类分配一个稠密的整数ID，GameObject据此用数组槽位存放组件
+ */
+public final class ComponentRegistry {
+    private static final AtomicInteger nextId = new AtomicInteger(0);
+
+    // 每个类型的ID只分配一次
+    private static final ClassValue<Integer> typeIds = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return nextId.getAndIncrement();
+        }
+    };
+
+    // 类型自身及其父类（直到Component为止）的ID，用于保持isInstance的查找语义
+    private static final ClassValue<int[]> hierarchyIds = new ClassValue<int[]>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            List<Integer> ids = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Component.class; c = c.getSuperclass()) {
+                ids.add(getTypeId(c));
+            }
+            int[] result = new int[ids.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = ids.get(i);
+            }
+            return result;
+        }
+    };
+
+    private ComponentRegistry() {
+    }
+
+    /**
+     * 获取组件类型的ID
+     */
+    public static int getTypeId(Class<?> componentType) {
+        return typeIds.get(componentType);
+    }
+
+    /**
+     * 获取组件类型及其所有组件父类的ID
+     */
+    public static int[] getHierarchyIds(Class<?> componentType) {
+        return hierarchyIds.get(componentType);
+    }
+
+    /**
+     * 获取已分配的类型数量
+     */
+    public static int getTypeCount() {
+        return nextId.get();
+    }
+}
@@ -3,7 +3,7 @@ package com.gameengine.core;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.input.InputManager;
 import com.gameengine.scene.Scene;
-import javax.swing.Timer;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * 游戏引擎 - 基础游戏引擎功能
@@ -12,20 +12,44 @@ public class GameEngine {
     private Renderer renderer;
     private InputManager inputManager;
     private Scene currentScene;
-    private boolean running;
-    private float targetFPS;
-    private float deltaTime;
+    private volatile boolean running;
+    private volatile float targetFPS;
+    private float tickRate;         // 每秒模拟次数
+    private float fixedDeltaTime;   // 每次模拟的固定时间步长
+    private int maxTicksPerFrame;   // 每帧最多模拟次数，防止卡顿后越追越慢
+    private float accumulator;      // 尚未模拟的时间
+    private float interpolationAlpha;
     private long lastTime;
     private String title;
-    private Timer gameTimer;
+    private Thread loopThread;
     
     public GameEngine(int width, int height, String title) {
+        this(width, height, title, Renderer.RenderMode.PASSIVE);
+    }
+    
+    /**
+     * @param renderMode 渲染模式，ACTIVE时由游戏循环线程直接绘制并提交每一帧
+     */
+    public GameEngine(int width, int height, String title, Renderer.RenderMode renderMode) {
+        this(width, height, title, renderMode, Renderer.RenderBackend.JAVA2D);
+    }
+    
+    /**
+     * @param renderMode 渲染模式，ACTIVE时由游戏循环线程直接绘制并提交每一帧
+     * @param renderBackend 绘制后端，SOFTWARE时由多个线程分图块光栅化每一帧
+     */
+    public GameEngine(int width, int height, String title, Renderer.RenderMode renderMode,
+                      Renderer.RenderBackend renderBackend) {
         this.title = title;
-        this.renderer = new Renderer(width, height, title);
+        this.renderer = new Renderer(width, height, title, renderMode, renderBackend);
         this.inputManager = InputManager.getInstance();
         this.running = false;
         this.targetFPS = 60.0f;
-        this.deltaTime = 0.0f;
+        this.tickRate = 60.0f;
+        this.fixedDeltaTime = 1.0f / tickRate;
+        this.maxTicksPerFrame = 5;
+        this.accumulator = 0.0f;
+        this.interpolationAlpha = 0.0f;
         this.lastTime = System.nanoTime();
     }
     
@@ -52,33 +76,73 @@ public class GameEngine {
             currentScene.initialize();
         }
         
-        // 创建游戏循环定时器
-        gameTimer = new Timer((int) (1000 / targetFPS), e -> {
-            if (running) {
-                update();
-                render();
-            }
-        });
+        // 在独立线程中运行游戏循环，事件分发线程只负责输入和绘制
+        loopThread = new Thread(this::loop, "GameLoop");
+        loopThread.start();
+    }
+    
+    /**
+     * 游戏循环
+     * 用System.nanoTime计时，每帧结束后用LockSupport.parkNanos等到下一帧的时间点，
+     * 计时精度不受Swing定时器毫秒粒度的限制
+     */
+    private void loop() {
+        lastTime = System.nanoTime();
+        accumulator = 0.0f;
+        long nextFrameTime = lastTime;
         
-        gameTimer.start();
+        while (running) {
+            update();
+            if (!running) break;
+            render();
+            
+            long frameNanos = (long) (1_000_000_000L / targetFPS);
+            nextFrameTime += frameNanos;
+            long now = System.nanoTime();
+            if (now - nextFrameTime > frameNanos) {
+                // 落后超过一帧时不再补帧，从现在重新计时
+                nextFrameTime = now;
+            }
+            waitUntil(nextFrameTime);
+        }
+    }
+    
+    // 休眠到指定时间点，最后一小段自旋以减小唤醒误差
+    private static void waitUntil(long deadline) {
+        final long spinThreshold = 200_000L; // 0.2毫秒
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > spinThreshold) {
+                LockSupport.parkNanos(remaining - spinThreshold);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
     }
     
     /**
      * 更新游戏逻辑
+     * 把距上一帧经过的时间累加起来，按固定步长模拟若干次，剩余不足一步的时间留到下一帧，
+     * 其占步长的比例作为渲染插值系数
      */
     private void update() {
         // 计算时间间隔
         long currentTime = System.nanoTime();
-        deltaTime = (currentTime - lastTime) / 1_000_000_000.0f; // 转换为秒
+        float frameTime = (currentTime - lastTime) / 1_000_000_000.0f; // 转换为秒
         lastTime = currentTime;
+        accumulator += frameTime;
         
-        // 更新输入
-        inputManager.update();
-        
-        // 更新场景
-        if (currentScene != null) {
-            currentScene.update(deltaTime);
+        int ticks = 0;
+        while (accumulator >= fixedDeltaTime && ticks < maxTicksPerFrame) {
+            tick(fixedDeltaTime);
+            accumulator -= fixedDeltaTime;
+            ticks++;
+        }
+        // 达到上限仍有积压时丢弃积压的时间，模拟变慢而不是卡死
+        if (accumulator >= fixedDeltaTime) {
+            accumulator %= fixedDeltaTime;
         }
+        interpolationAlpha = accumulator / fixedDeltaTime;
         
         // 处理事件
         renderer.pollEvents();
@@ -86,17 +150,28 @@ public class GameEngine {
         // 检查退出条件
         if (inputManager.isKeyPressed(27)) { // ESC键
             running = false;
-            gameTimer.stop();
             renderer.cleanup();
         }
         
         // 检查窗口是否关闭
         if (renderer.shouldClose()) {
             running = false;
-            gameTimer.stop();
         }
     }
     
+    /**
+     * 按固定步长模拟一次
+     */
+    private void tick(float deltaTime) {
+        // 更新场景
+        if (currentScene != null) {
+            currentScene.update(deltaTime);
+        }
+        
+        // 刚按下的输入只在一次模拟中可见
+        inputManager.update();
+    }
+    
     /**
      * 渲染游戏
      */
@@ -133,8 +208,8 @@ public class GameEngine {
      */
     public void stop() {
         running = false;
-        if (gameTimer != null) {
-            gameTimer.stop();
+        if (loopThread != null) {
+            LockSupport.unpark(loopThread);
         }
     }
     
@@ -163,20 +238,67 @@ public class GameEngine {
     }
     
     /**
-     * 获取时间间隔
+     * 获取时间间隔，即每次模拟的固定步长
      */
     public float getDeltaTime() {
-        return deltaTime;
+        return fixedDeltaTime;
+    }
+    
+    /**
+     * 设置每秒模拟次数，与渲染帧率无关
+     */
+    public void setTickRate(float tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("模拟频率必须为正数: " + tickRate);
+        }
+        this.tickRate = tickRate;
+        this.fixedDeltaTime = 1.0f / tickRate;
+    }
+    
+    /**
+     * 获取每秒模拟次数
+     */
+    public float getTickRate() {
+        return tickRate;
+    }
+    
+    /**
+     * 设置每帧最多模拟次数
+     */
+    public void setMaxTicksPerFrame(int maxTicksPerFrame) {
+        if (maxTicksPerFrame < 1) {
+            throw new IllegalArgumentException("每帧模拟次数至少为1: " + maxTicksPerFrame);
+        }
+        this.maxTicksPerFrame = maxTicksPerFrame;
+    }
+    
+    /**
+     * 获取每帧最多模拟次数
+     */
+    public int getMaxTicksPerFrame() {
+        return maxTicksPerFrame;
+    }
+    
+    /**
+     * 获取渲染插值系数，范围[0, 1)
+     * 表示当前时刻位于上一次和下一次模拟之间的位置，渲染时用于在前后两次状态之间插值。
+     * 场景暂停时不再模拟，上一次位置不再更新，此时返回1，直接按当前位置渲染
+     */
+    public float getInterpolationAlpha() {
+        if (currentScene != null && currentScene.isPaused()) {
+            return 1.0f;
+        }
+        return interpolationAlpha;
     }
     
     /**
      * 设置目标帧率
      */
     public void setTargetFPS(float fps) {
-        this.targetFPS = fps;
-        if (gameTimer != null) {
-            gameTimer.setDelay((int) (1000 / fps));
+        if (fps <= 0) {
+            throw new IllegalArgumentException("目标帧率必须为正数: " + fps);
         }
+        this.targetFPS = fps;
     }
     
     /**
@@ -123,7 +123,7 @@ public class GameLogic {
                     float distance = playerTransform.getPosition().distance(enemyTransform.getPosition());
                     if (distance < 25) {
                         // 碰撞！重置玩家位置
-                        playerTransform.setPosition(new Vector2(400, 300));
+                        playerTransform.teleport(new Vector2(400, 300));
                         break;
                     }
                 }
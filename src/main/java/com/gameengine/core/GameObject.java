@@ -12,13 +12,20 @@ public class GameObject {
     protected String name;
     protected String tag; // 添加tag属性
     protected final List<Component<?>> components;
+    protected Component<?>[] componentSlots; // 按组件类型ID索引的槽位
+    protected final List<Component<?>> pendingComponents; // 更新期间添加、等待加入更新列表的组件
+    protected boolean updatingComponents; // 是否正在更新组件
     protected Scene scene; // 添加对场景的引用
+    protected int tagSlot = -1; // 在场景tag索引列表中的下标，由Scene维护
+    protected int[] queryRows = new int[0]; // 在场景各查询中的行号，按查询编号索引，-1表示不在查询中，由SceneQuery维护
     
     public GameObject() {
         this.active = true;
         this.name = "GameObject";
         this.tag = "Untagged"; // 默认tag
         this.components = new ArrayList<>();
+        this.componentSlots = new Component<?>[ComponentRegistry.getTypeCount()];
+        this.pendingComponents = new ArrayList<>();
         this.scene = null;
     }
     
@@ -62,63 +69,158 @@ public class GameObject {
         for (Component<?> component : components) {
             component.destroy();
         }
+        for (Component<?> component : pendingComponents) {
+            component.destroy();
+        }
         components.clear();
+        pendingComponents.clear();
+        Arrays.fill(componentSlots, null);
+        if (scene != null) {
+            scene.onComponentsChanged(this, null);
+        }
     }
     
     /**
      * 添加组件
+     * 在组件更新期间添加的组件立即可以查询到，但从下一帧开始才参与更新
      */
     public <T extends Component<T>> T addComponent(T component) {
         component.setOwner(this);
-        components.add(component);
+        if (updatingComponents) {
+            pendingComponents.add(component);
+        } else {
+            components.add(component);
+        }
+        addToSlots(component);
+        if (scene != null) {
+            scene.onComponentsChanged(this, component);
+        }
         component.initialize();
         return component;
     }
     
+    /**
+     * 移除组件
+     * 组件立即被禁用，在组件更新期间调用时，等本轮更新结束后再从对象上移除
+     */
+    public void removeComponent(Component<?> component) {
+        if (component.getOwner() != this) return;
+        component.destroy();
+        if (!updatingComponents) {
+            removeDisabledComponents();
+        }
+    }
+    
     /**
      * 获取组件
      */
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return (T) component;
-            }
-        }
-        return null;
+        int id = ComponentRegistry.getTypeId(componentType);
+        return id < componentSlots.length ? (T) componentSlots[id] : null;
+    }
+    
+    /**
+     * 按组件类型ID获取组件
+     */
+    public Component<?> getComponentByTypeId(int typeId) {
+        return typeId < componentSlots.length ? componentSlots[typeId] : null;
     }
     
     /**
      * 检查是否有指定类型的组件
      */
     public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return true;
+        return getComponent(componentType) != null;
+    }
+    
+    /**
+     * 将组件登记到其类型及父类型的槽位，已有同类型组件时保留先添加的
+     */
+    private void addToSlots(Component<?> component) {
+        for (int id : ComponentRegistry.getHierarchyIds(component.getClass())) {
+            if (id >= componentSlots.length) {
+                componentSlots = Arrays.copyOf(componentSlots, Math.max(id + 1, ComponentRegistry.getTypeCount()));
+            }
+            if (componentSlots[id] == null) {
+                componentSlots[id] = component;
             }
         }
-        return false;
+    }
+    
+    /**
+     * 从槽位中移除组件，并用剩余的同类型组件补位
+     */
+    private void removeFromSlots(Component<?> component) {
+        for (int id : ComponentRegistry.getHierarchyIds(component.getClass())) {
+            if (id < componentSlots.length && componentSlots[id] == component) {
+                componentSlots[id] = null;
+            }
+        }
+        for (int i = 0; i < components.size(); i++) {
+            addToSlots(components.get(i));
+        }
+        for (int i = 0; i < pendingComponents.size(); i++) {
+            addToSlots(pendingComponents.get(i));
+        }
     }
     
     /**
      * 更新所有组件
+     * 更新期间的增删组件会延迟到本轮更新结束后统一处理，稳定状态下不分配内存
      */
     public void updateComponents(float deltaTime) {
-        // 先遍历副本，防止遍历时修改
-        for (Component<?> component : new ArrayList<>(components)) {
-            if (component.isEnabled()) {
-                component.update(deltaTime);
+        updatingComponents = true;
+        try {
+            for (int i = 0; i < components.size(); i++) {
+                Component<?> component = components.get(i);
+                if (component.isEnabled()) {
+                    component.update(deltaTime);
+                }
+            }
+        } finally {
+            updatingComponents = false;
+        }
+        applyPendingComponentChanges();
+    }
+    
+    /**
+     * 把更新期间添加的组件并入更新列表，并移除已禁用的组件
+     */
+    protected void applyPendingComponentChanges() {
+        if (!pendingComponents.isEmpty()) {
+            for (int i = 0; i < pendingComponents.size(); i++) {
+                components.add(pendingComponents.get(i));
+            }
+            pendingComponents.clear();
+        }
+        removeDisabledComponents();
+    }
+    
+    /**
+     * 统一移除已禁用组件
+     * 只被setEnabled(false)禁用的组件没有经过destroy，移除前补调一次以释放它占用的资源
+     */
+    private void removeDisabledComponents() {
+        for (int i = components.size() - 1; i >= 0; i--) {
+            Component<?> component = components.get(i);
+            if (!component.isEnabled()) {
+                component.destroy();
+                components.remove(i);
+                removeFromSlots(component);
+                if (scene != null) {
+                    scene.onComponentsChanged(this, component);
+                }
             }
         }
-        // 统一移除已禁用组件
-        components.removeIf(c -> !c.isEnabled());
     }
     
     /**
      * 渲染所有组件
      */
     public void renderComponents() {
-        for (Component<?> component : components) {
+        for (int i = 0; i < components.size(); i++) {
+            Component<?> component = components.get(i);
             if (component.isEnabled()) {
                 component.render();
             }
@@ -148,7 +250,11 @@ public class GameObject {
     }
 
     public void setTag(String tag) {
+        String oldTag = this.tag;
         this.tag = tag;
+        if (scene != null && !Objects.equals(oldTag, tag)) {
+            scene.onGameObjectTagChanged(this, oldTag);
+        }
     }
 
     public Scene getScene() {
@@ -158,4 +264,30 @@ public class GameObject {
     public void setScene(Scene scene) {
         this.scene = scene;
     }
+
+    public int getTagSlot() {
+        return tagSlot;
+    }
+
+    public void setTagSlot(int tagSlot) {
+        this.tagSlot = tagSlot;
+    }
+
+    /**
+     * 获取在指定编号查询中的行号，不在查询中时返回-1
+     */
+    public int getQueryRow(int queryIndex) {
+        return queryIndex < queryRows.length ? queryRows[queryIndex] : -1;
+    }
+
+    public void setQueryRow(int queryIndex, int row) {
+        if (queryIndex >= queryRows.length) {
+            if (row < 0) return;
+            // 只在场景新建查询后第一次加入时扩容
+            int oldLength = queryRows.length;
+            queryRows = Arrays.copyOf(queryRows, queryIndex + 1);
+            Arrays.fill(queryRows, oldLength, queryRows.length, -1);
+        }
+        queryRows[queryIndex] = row;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.gameengine.core;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * 对话框工具
+ * 游戏循环在独立线程中运行，而Swing组件只能在事件分发线程中创建和显示。
+ * 这里把对话框交给事件分发线程执行，并阻塞调用线程直到对话框关闭，
+ * 与原先在Swing定时器回调中直接弹出模态对话框时的行为一致
+ */
+public final class SwingDialogs {
+    private SwingDialogs() {
+    }
+
+    /**
+     * 显示消息对话框
+     */
+    public static void showMessageDialog(String message) {
+        callOnEventThread(() -> {
+            JOptionPane.showMessageDialog(null, message);
+            return null;
+        });
+    }
+
+    /**
+     * 在事件分发线程中执行并等待结果，已在事件分发线程中时直接执行
+     * 对话框及其组件（如JFileChooser）应在action中创建
+     */
+    public static <T> T callOnEventThread(Supplier<T> action) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            return action.get();
+        }
+        Object[] result = new Object[1];
+        try {
+            SwingUtilities.invokeAndWait(() -> result[0] = action.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待对话框时被中断", e);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) result[0];
+        return value;
+    }
+}
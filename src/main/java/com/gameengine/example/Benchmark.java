@@ -0,0 +1,79 @@
+package com.gameengine.example;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 基准测试公共工具
+ * 先预热再测量若干帧的耗时和当前线程分配的字节数，供本包中的各个基准测试使用。
+ * JVM不支持统计线程分配时，分配相关的结果为NaN
+ */
+final class Benchmark {
+    private Benchmark() {
+    }
+
+    /**
+     * 预热，让JIT完成编译、缓存和对象池达到稳定状态
+     */
+    static void warmUp(int frames, Runnable frame) {
+        for (int f = 0; f < frames; f++) {
+            frame.run();
+        }
+    }
+
+    /**
+     * 执行指定帧数并测量
+     */
+    static Measurement measure(int frames, Runnable frame) {
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            frame.run();
+        }
+        long nanos = System.nanoTime() - start;
+        long allocatedAfter = allocatedBytes();
+        long allocated = allocatedBefore < 0 ? -1 : allocatedAfter - allocatedBefore;
+        return new Measurement(frames, nanos, allocated);
+    }
+
+    /**
+     * 当前线程累计分配的字节数，不支持时返回-1
+     */
+    static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * 一次测量的结果
+     */
+    static final class Measurement {
+        final int frames;
+        final long nanos;
+        final long allocatedBytes; // 不支持统计时为-1
+
+        Measurement(int frames, long nanos, long allocatedBytes) {
+            this.frames = frames;
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        double millisPerFrame() {
+            return nanos / 1e6 / frames;
+        }
+
+        double bytesPerFrame() {
+            return bytesPer(frames);
+        }
+
+        /**
+         * 平均每个单位（如每条命令、每次对象更新）分配的字节数
+         */
+        double bytesPer(long units) {
+            return allocatedBytes < 0 ? Double.NaN : (double) allocatedBytes / units;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.gameengine.example;
+
+import com.gameengine.components.HealthComponent;
+import com.gameengine.components.LifetimeComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+/**
+ * 组件更新分配基准测试
+ * 每个对象带三个组件，反复调用updateComponents，测量每帧和每次对象更新分配的字节数与耗时。
+ * 稳定状态下组件更新不应分配内存。
+ * 不需要打开窗口，可以在无图形界面的环境中运行：
+ * java -cp build/classes com.gameengine.example.ComponentUpdateBenchmark [对象数] [帧数]
+ */
+public class ComponentUpdateBenchmark {
+    public static void main(String[] args) {
+        int objectCount = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+        GameObject[] objects = new GameObject[objectCount];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = new GameObject("Object", "Object");
+            objects[i].addComponent(new TransformComponent(new Vector2(i, i)));
+            objects[i].addComponent(new HealthComponent(10));
+            objects[i].addComponent(new LifetimeComponent(1e9f)); // 测试期间不会过期
+        }
+
+        Runnable frame = () -> updateAll(objects);
+        Benchmark.warmUp(2000, frame);
+        Benchmark.Measurement result = Benchmark.measure(frames, frame);
+
+        System.out.printf("%d 个对象 x 3 个组件, %d 帧%n", objectCount, frames);
+        System.out.printf("每帧分配 %.1f 字节, 每次对象更新分配 %.3f 字节, %.3f 毫秒/帧%n",
+                result.bytesPerFrame(), result.bytesPer((long) frames * objectCount), result.millisPerFrame());
+    }
+
+    private static void updateAll(GameObject[] objects) {
+        for (int i = 0; i < objects.length; i++) {
+            objects[i].updateComponents(1 / 60f);
+        }
+    }
+}
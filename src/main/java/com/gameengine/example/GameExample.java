@@ -1,14 +1,23 @@
 package com.gameengine.example;
 
+import com.gameengine.components.PhysicsStorage;
 import com.gameengine.core.GameEngine;
 import com.gameengine.example.scene.GameScene;
+import com.gameengine.graphics.Renderer;
+
+import java.util.Arrays;
 
 public class GameExample {
     public static void main(String[] args) {
         System.out.println("启动游戏引擎...");
         
         try {
-            GameEngine engine = new GameEngine(1100, 600, "葫芦娃大战妖精"); // 增加300px宽度用于UI栏
+            // 默认使用被动绘制；主动绘制（BufferStrategy）尚未在实际显示器上验证，需用 --active 参数开启
+            Renderer.RenderMode renderMode = Arrays.asList(args).contains("--active")
+                    ? Renderer.RenderMode.ACTIVE : Renderer.RenderMode.PASSIVE;
+            // 默认由各组件自身字段保存变换和物理数据；--packed 参数开启紧凑存储，需在创建对象前设置
+            PhysicsStorage.getInstance().setEnabled(Arrays.asList(args).contains("--packed"));
+            GameEngine engine = new GameEngine(1100, 600, "葫芦娃大战妖精", renderMode); // 增加300px宽度用于UI栏
             
             // 游戏参数配置
             float enemySpawnInterval = 10.0f;  // 敌人生成间隔（秒）
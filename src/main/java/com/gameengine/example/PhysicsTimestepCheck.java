@@ -0,0 +1,148 @@
+package com.gameengine.example;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.PhysicsStorage;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+/**
+ * 物理步长无关性检查
+ * 同一组物体分别以30、60、240Hz模拟相同的时长，比较各时刻的位置和速度，
+ * 在组件自身字段（PhysicsComponent.update）和紧凑存储（PhysicsStorage.integrate）两种模式下各检查一次。
+ * 另外检查恒定推力下的最终速度与原来60Hz逐帧乘以friction时的 a*f/(60*(1-f)) 相同。
+ * 速度上限在子步结束时施加，不保证与步长无关，这里不检查。
+ * 不需要打开窗口，可以在无图形界面的环境中运行，结果超出容差时以非0状态退出：
+ * java -cp build/classes com.gameengine.example.PhysicsTimestepCheck
+ */
+public class PhysicsTimestepCheck {
+    private static final int[] RATES = {30, 60, 240};
+    private static final float DURATION = 2.0f; // 前一半时间施加推力，后一半自由滑行
+    private static final float ABSOLUTE_TOLERANCE = 0.01f; // 像素或像素/秒
+    private static final float RELATIVE_TOLERANCE = 1e-4f;
+
+    // 测试物体：friction、初速度、推力（只在前一半时间施加）
+    private static final float[][] BODIES = {
+        {0.95f, 0, 0, 30, 10},        // 敌人的摩擦力，受推力加速后滑行
+        {0.9f, 200, -50, 0, 0},       // 玩家的摩擦力，以初速度滑行
+        {1.0f, 300, 120, 0, 0},       // 投射物，无摩擦匀速
+        {0.9f, -80, 40, -250, 400},   // 初速度与推力方向不同
+    };
+
+    private static int failures;
+
+    public static void main(String[] args) {
+        for (boolean packed : new boolean[]{false, true}) {
+            String label = packed ? "紧凑存储(PhysicsStorage.integrate)" : "组件字段(PhysicsComponent.update)";
+            // 每个频率在t=1和t=2时刻的结果：[频率][物体][x, y, vx, vy]
+            float[][][] atHalf = new float[RATES.length][][];
+            float[][][] atEnd = new float[RATES.length][][];
+            for (int r = 0; r < RATES.length; r++) {
+                float[][][] result = simulate(packed, RATES[r]);
+                atHalf[r] = result[0];
+                atEnd[r] = result[1];
+            }
+            for (int r = 0; r < RATES.length; r++) {
+                if (RATES[r] == 60) continue;
+                compare(label, "t=1s", RATES[r], atHalf[r], atHalf[1]);
+                compare(label, "t=2s", RATES[r], atEnd[r], atEnd[1]);
+            }
+            checkTerminalSpeed(label, packed);
+        }
+        if (failures > 0) {
+            System.out.println("失败: " + failures + " 项超出容差");
+            System.exit(1);
+        }
+        System.out.println("通过: 30、60、240Hz的轨迹在容差内一致");
+    }
+
+    // 以指定频率模拟所有测试物体，返回t=DURATION/2和t=DURATION时的状态
+    private static float[][][] simulate(boolean packed, int rate) {
+        PhysicsStorage.getInstance().setEnabled(packed); // 需在创建对象前设置
+        Scene scene = new Scene("PhysicsTimestepCheck");
+        PhysicsComponent[] bodies = new PhysicsComponent[BODIES.length];
+        TransformComponent[] transforms = new TransformComponent[BODIES.length];
+        for (int i = 0; i < BODIES.length; i++) {
+            GameObject body = new GameObject("Body", "Body");
+            transforms[i] = body.addComponent(new TransformComponent(new Vector2(400, 300)));
+            bodies[i] = body.addComponent(new PhysicsComponent(1.0f));
+            bodies[i].setFriction(BODIES[i][0]);
+            bodies[i].setVelocity(new Vector2(BODIES[i][1], BODIES[i][2]));
+            scene.addGameObject(body);
+        }
+        scene.update(0);
+
+        float dt = 1.0f / rate;
+        int ticks = Math.round(DURATION * rate);
+        float[][][] result = new float[2][][];
+        for (int tick = 0; tick < ticks; tick++) {
+            if (tick < ticks / 2) {
+                for (int i = 0; i < BODIES.length; i++) {
+                    bodies[i].addForce(BODIES[i][3], BODIES[i][4]);
+                }
+            }
+            scene.update(dt);
+            if (tick == ticks / 2 - 1) {
+                result[0] = snapshot(transforms, bodies);
+            }
+        }
+        result[1] = snapshot(transforms, bodies);
+        scene.clear(); // 释放紧凑存储中的槽位
+        return result;
+    }
+
+    private static float[][] snapshot(TransformComponent[] transforms, PhysicsComponent[] bodies) {
+        float[][] state = new float[bodies.length][];
+        Vector2 velocity = new Vector2();
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i].getVelocity(velocity);
+            state[i] = new float[]{transforms[i].getX(), transforms[i].getY(), velocity.x, velocity.y};
+        }
+        return state;
+    }
+
+    private static void compare(String label, String when, int rate, float[][] actual, float[][] expected) {
+        float worst = 0;
+        for (int i = 0; i < expected.length; i++) {
+            for (int k = 0; k < 4; k++) {
+                float diff = Math.abs(actual[i][k] - expected[i][k]);
+                float tolerance = Math.max(ABSOLUTE_TOLERANCE, RELATIVE_TOLERANCE * Math.abs(expected[i][k]));
+                worst = Math.max(worst, diff);
+                if (diff > tolerance) {
+                    failures++;
+                    System.out.printf("  %s %s %dHz 物体%d 分量%d: %.4f, 60Hz为 %.4f%n",
+                            label, when, rate, i, k, actual[i][k], expected[i][k]);
+                }
+            }
+        }
+        System.out.printf("%s %s %dHz 与60Hz最大差值 %.5f%n", label, when, rate, worst);
+    }
+
+    // 恒定推力持续足够长时间后，速度应等于原来60Hz逐帧乘以friction时的最终速度
+    private static void checkTerminalSpeed(String label, boolean packed) {
+        PhysicsStorage.getInstance().setEnabled(packed);
+        float[] frictions = {0.9f, 0.95f};
+        float accel = 30.0f;
+        for (float friction : frictions) {
+            Scene scene = new Scene("PhysicsTimestepCheck");
+            GameObject body = new GameObject("Body", "Body");
+            body.addComponent(new TransformComponent(new Vector2(0, 0)));
+            PhysicsComponent physics = body.addComponent(new PhysicsComponent(1.0f));
+            physics.setFriction(friction);
+            scene.addGameObject(body);
+            scene.update(0);
+            for (int tick = 0; tick < 60 * 20; tick++) {
+                physics.addForce(accel, 0);
+                scene.update(1.0f / 60);
+            }
+            float expected = accel * friction / (60 * (1 - friction));
+            float actual = physics.getVelocity().x;
+            boolean ok = Math.abs(actual - expected) <= RELATIVE_TOLERANCE * 10 * expected;
+            if (!ok) failures++;
+            System.out.printf("%s friction=%.2f 最终速度 %.4f, 原60Hz为 %.4f %s%n",
+                    label, friction, actual, expected, ok ? "" : "超出容差");
+            scene.clear();
+        }
+    }
+}
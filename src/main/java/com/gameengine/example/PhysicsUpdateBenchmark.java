@@ -0,0 +1,51 @@
+package com.gameengine.example;
+
+import com.gameengine.characters.Player;
+import com.gameengine.characters.enemies.Minion;
+import com.gameengine.components.PhysicsStorage;
+import com.gameengine.logic.PhysicsManager;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Random;
+
+/**
+ * 移动与物理更新分配基准测试
+ * 一个玩家加若干小兵，每帧执行Scene.update和PhysicsManager.update（敌人追踪、受力、积分、边界限制），
+ * 分别在组件自身字段和紧凑存储两种模式下测量每帧分配的字节数与耗时。
+ * 不需要打开窗口，可以在无图形界面的环境中运行：
+ * java -cp build/classes com.gameengine.example.PhysicsUpdateBenchmark [小兵数] [帧数]
+ */
+public class PhysicsUpdateBenchmark {
+    public static void main(String[] args) {
+        int minionCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+        System.out.printf("1 个玩家 + %d 个小兵, %d 帧%n", minionCount, frames);
+        run("组件字段", false, minionCount, frames);
+        run("紧凑存储", true, minionCount, frames);
+    }
+
+    private static void run(String label, boolean packed, int minionCount, int frames) {
+        PhysicsStorage.getInstance().setEnabled(packed);
+        Scene scene = new Scene("PhysicsUpdateBenchmark");
+        scene.addGameObject(new Player(new Vector2(400, 300)));
+        Random random = new Random(1);
+        for (int i = 0; i < minionCount; i++) {
+            scene.addGameObject(new Minion(new Vector2(random.nextFloat() * 800, random.nextFloat() * 600)));
+        }
+        PhysicsManager physicsManager = new PhysicsManager(scene);
+        scene.update(0);
+
+        Runnable frame = () -> {
+            scene.update(1 / 60f);
+            physicsManager.update();
+        };
+        Benchmark.warmUp(300, frame);
+        Benchmark.Measurement result = Benchmark.measure(frames, frame);
+
+        System.out.printf("%s: 每帧分配 %.2f KB, %.3f 毫秒/帧%n",
+                label, result.bytesPerFrame() / 1024.0, result.millisPerFrame());
+        scene.clear(); // 释放紧凑存储中的槽位
+    }
+}
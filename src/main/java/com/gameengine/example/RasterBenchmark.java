@@ -0,0 +1,112 @@
+package com.gameengine.example;
+
+import com.gameengine.graphics.CommandBuffer;
+import com.gameengine.graphics.SoftwareRasterizer;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * 绘制后端基准测试
+ * 用相同的命令分别测量Java2D逐条回放（窗口面板的绘制方式）和SoftwareRasterizer分图块并行光栅化
+ * 再整体复制的每帧耗时。命令按游戏中的比例混合矩形、圆形、图像和粒子。
+ * 不需要打开窗口，可以在无图形界面的环境中运行：
+ * java -cp build/classes com.gameengine.example.RasterBenchmark [帧数] [每帧图元数...]
+ */
+public class RasterBenchmark {
+    private static final int WIDTH = 1100;
+    private static final int HEIGHT = 600;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int[] counts = {1000, 10000, 100000};
+        if (args.length > 1) {
+            counts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                counts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        BufferedImage sprite = createSprite();
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        SoftwareRasterizer rasterizer = new SoftwareRasterizer(WIDTH, HEIGHT);
+        CommandBuffer buffer = new CommandBuffer();
+
+        System.out.printf("画面 %dx%d, 每种情况 %d 帧, 并行度 %d%n",
+                WIDTH, HEIGHT, frames, java.util.concurrent.ForkJoinPool.commonPool().getParallelism());
+        System.out.printf("%10s %14s %14s %8s%n", "图元数", "Java2D(毫秒)", "软件(毫秒)", "加速比");
+        for (int count : counts) {
+            record(buffer, count, sprite);
+            int rounds = Math.max(1, frames * 1000 / Math.max(count, 1000));
+            double java2d = measure(rounds, () -> {
+                Graphics2D g = target.createGraphics();
+                g.setColor(Color.BLACK);
+                g.fillRect(0, 0, WIDTH, HEIGHT);
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                buffer.replay(g);
+                g.dispose();
+            });
+            double software = measure(rounds, () -> {
+                Graphics2D g = target.createGraphics();
+                g.drawImage(rasterizer.render(buffer), 0, 0, null);
+                g.dispose();
+            });
+            System.out.printf("%10d %14.2f %14.2f %7.1fx%n", count, java2d, software, java2d / software);
+        }
+    }
+
+    // 预热后返回平均每帧耗时（毫秒）
+    private static double measure(int rounds, Runnable frame) {
+        for (int i = 0; i < Math.max(3, rounds / 5); i++) {
+            frame.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            frame.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+
+    private static void record(CommandBuffer buffer, int count, BufferedImage sprite) {
+        buffer.reset();
+        for (int i = 0; i < count; i++) {
+            float x = (i * 37) % WIDTH;
+            float y = (i * 91 + i / WIDTH) % HEIGHT;
+            int argb = CommandBuffer.packColor((i & 255) / 255f, 0.5f, 0.2f, 1.0f);
+            switch (i & 3) {
+                case 0:
+                    buffer.rect(x, y, 30, 5, argb);
+                    break;
+                case 1:
+                    buffer.circle(x, y, 8, argb);
+                    break;
+                case 2:
+                    buffer.image(sprite, x, y, sprite.getWidth(), sprite.getHeight());
+                    break;
+                default:
+                    if ((i & 63) == 3) {
+                        buffer.gradientCircle(x, y, 40, argb);
+                    } else {
+                        // 粒子：半透明的小圆
+                        buffer.circle(x, y, 1 + (i & 7) * 0.25f, (argb & 0xFFFFFF) | 0x80000000);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // 与角色精灵相近的带透明边缘的小图像
+    private static BufferedImage createSprite() {
+        BufferedImage sprite = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = sprite.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setColor(new Color(0.2f, 0.8f, 0.3f, 1.0f));
+        g.fillOval(2, 2, 28, 28);
+        g.setColor(Color.WHITE);
+        g.fillRect(10, 10, 12, 4);
+        g.dispose();
+        return sprite;
+    }
+}
@@ -0,0 +1,74 @@
+package com.gameengine.example;
+
+import com.gameengine.graphics.CommandBuffer;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * 绘制命令吞吐量基准测试
+ * 分别测量记录绘制命令和在离屏图像上回放命令的速度，以及记录时每次调用分配的字节数。
+ * 不需要打开窗口，可以在无图形界面的环境中运行：
+ * java -cp build/classes com.gameengine.example.RenderBenchmark [每帧命令数] [帧数]
+ */
+public class RenderBenchmark {
+    public static void main(String[] args) {
+        int commandsPerFrame = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        CommandBuffer buffer = new CommandBuffer();
+        BufferedImage target = new BufferedImage(1100, 600, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = target.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int[] frame = new int[1]; // 记录时使用的帧号，让每帧的命令略有不同
+        Runnable recordFrame = () -> record(buffer, commandsPerFrame, frame[0]++);
+        Runnable replayFrame = () -> buffer.replay(g);
+        Benchmark.warmUp(20, () -> {
+            recordFrame.run();
+            replayFrame.run();
+        });
+
+        frame[0] = 0;
+        Benchmark.Measurement recording = Benchmark.measure(frames, recordFrame);
+        int replayFrames = Math.max(1, frames / 10);
+        Benchmark.Measurement replaying = Benchmark.measure(replayFrames, replayFrame);
+        g.dispose();
+
+        long recorded = (long) commandsPerFrame * frames;
+        long replayed = (long) buffer.size() * replayFrames;
+        System.out.printf("记录: %d 条命令, %.1f 百万条/秒, 每条分配 %.3f 字节%n",
+                recorded, recorded / (recording.nanos / 1e3), recording.bytesPer(recorded));
+        System.out.printf("回放: %d 条命令, %.2f 百万条/秒 (%.2f 毫秒/帧)%n",
+                replayed, replayed / (replaying.nanos / 1e3), replaying.millisPerFrame());
+    }
+
+    // 按游戏中常见的比例混合矩形、圆形、线条和渐变圆
+    private static void record(CommandBuffer buffer, int count, int frame) {
+        buffer.reset();
+        for (int i = 0; i < count; i++) {
+            float x = (i * 37 + frame) % 1100;
+            float y = (i * 91 + frame) % 600;
+            int argb = CommandBuffer.packColor((i & 255) / 255f, 0.5f, 0.2f, 1.0f);
+            switch (i & 3) {
+                case 0:
+                    buffer.rect(x, y, 30, 5, argb);
+                    break;
+                case 1:
+                    buffer.circle(x, y, 3, argb);
+                    break;
+                case 2:
+                    buffer.line(x, y, x + 10, y + 10, argb);
+                    break;
+                default:
+                    if ((i & 63) == 3) {
+                        buffer.gradientCircle(x, y, 40, argb);
+                    } else {
+                        buffer.rect(x, y, 2, 2, argb);
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -7,6 +7,8 @@ import com.gameengine.core.GameObject;
 import com.gameengine.core.GameEngine;
 import com.gameengine.logic.AdvancedGameLogic;
 import java.util.Iterator;
+import com.gameengine.graphics.CommandBuffer;
+import com.gameengine.graphics.RenderLayer;
 import com.gameengine.graphics.Renderer;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
@@ -32,6 +34,21 @@ public class GameScene extends Scene implements MainMenuComponent.GameScene {
     private boolean nKeyPressed = false; // N键按下状态跟踪
     private boolean f12KeyPressed = false; // F12键按下状态跟踪
     private boolean pKeyPressed = false; // P键按下状态跟踪
+    
+    // UI布局 - 游戏画面右侧独立UI栏
+    private static final int GAME_AREA_WIDTH = 800; // 游戏画面区域宽度
+    private static final int GAME_AREA_HEIGHT = 600;
+    private static final int UI_START_X = GAME_AREA_WIDTH + 10; // UI栏起始位置
+    private static final int UI_WIDTH = 280; // UI栏宽度
+    private static final int UI_LINE_HEIGHT = 45; // 行高，避免文字和进度条重叠
+    
+    // 缓存图层：背景不变，UI栏框架只在音效、音乐、暂停状态变化时重绘
+    private final RenderLayer backgroundLayer = new RenderLayer(GAME_AREA_WIDTH, GAME_AREA_HEIGHT);
+    private final RenderLayer hudLayer = new RenderLayer(300, GAME_AREA_HEIGHT);
+    private boolean hudAudioEnabled;
+    private boolean hudBgmEnabled;
+    private boolean hudPaused;
+    private boolean hudShowCooldowns;
 
     // 游戏参数 - 通过构造函数传入
     private float enemySpawnInterval;
@@ -57,9 +74,13 @@ public class GameScene extends Scene implements MainMenuComponent.GameScene {
     public void initialize() {
         super.initialize();
         this.renderer = engine.getRenderer();
+        renderer.setViewport(0, 0, GAME_AREA_WIDTH, GAME_AREA_HEIGHT); // 只绘制游戏画面内的对象
         this.random = new Random();
         this.gameLogic = new AdvancedGameLogic(this, enemySpawnInterval, enemySpawnNumber, gameDuration);
         
+        // 预加载精灵图像
+        CharacterFactory.preloadSprites();
+        
         // 添加音效系统
         AudioSystemComponent audioSystem = new AudioSystemComponent();
         GameObject audioGameObject = new GameObject("AudioSystem", "AudioSystem");
@@ -195,84 +216,61 @@ public class GameScene extends Scene implements MainMenuComponent.GameScene {
         
         // 只有在主菜单未激活时才绘制游戏背景
         if (!menuActive) {
-            renderer.drawRect(0, 0, 800, 600, 0.1f, 0.1f, 0.2f, 1.0f);
+            if (backgroundLayer.isDirty()) {
+                backgroundLayer.begin().rect(0, 0, GAME_AREA_WIDTH, GAME_AREA_HEIGHT, CommandBuffer.packColor(0.1f, 0.1f, 0.2f, 1.0f));
+                backgroundLayer.end();
+            }
+            backgroundLayer.draw(renderer, 0, 0);
         }
         
-        // 渲染游戏对象
+        // 渲染游戏对象，位置在前后两次模拟之间插值
+        float alpha = engine.getInterpolationAlpha();
         for (GameObject obj : getGameObjects()) {
             if (!obj.isActive()) continue;
             if (obj.hasComponent(HealthComponent.class) && !obj.getComponent(HealthComponent.class).isAlive()) continue;
             
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            float x = transform != null ? transform.getInterpolatedX(alpha) : 0;
+            float y = transform != null ? transform.getInterpolatedY(alpha) : 0;
+            
             // 渲染攻击范围效果
-            if (obj.hasComponent(AttackRangeComponent.class) && obj.hasComponent(TransformComponent.class)) {
+            if (transform != null && obj.hasComponent(AttackRangeComponent.class)) {
                 AttackRangeComponent attackRange = obj.getComponent(AttackRangeComponent.class);
-                TransformComponent transform = obj.getComponent(TransformComponent.class);
-                if (attackRange.isActive()) {
+                float radius = attackRange.getRadius();
+                if (attackRange.isActive() && renderer.isVisible(x - radius, y - radius, radius * 2, radius * 2)) {
                     // 根据对象类型选择颜色
                     if ("EnemyAttackRange".equals(obj.getTag())) {
                         // 敌人攻击范围 - 深红色
-                        renderer.drawGradientCircle(
-                            transform.getPosition().x,
-                            transform.getPosition().y,
-                            attackRange.getRadius(),
-                            attackRange.getAlpha(),
-                            0.8f, 0.0f, 0.0f // 深红色
-                        );
+                        renderer.drawGradientCircle(x, y, radius, attackRange.getAlpha(), 0.8f, 0.0f, 0.0f);
                     } else if ("CannonballExplosion".equals(obj.getTag())) {
                         // 炮弹爆炸效果 - 橙红色
-                        renderer.drawGradientCircle(
-                            transform.getPosition().x,
-                            transform.getPosition().y,
-                            attackRange.getRadius(),
-                            attackRange.getAlpha(),
-                            1.0f, 0.5f, 0.0f // 橙红色
-                        );
+                        renderer.drawGradientCircle(x, y, radius, attackRange.getAlpha(), 1.0f, 0.5f, 0.0f);
                     } else if ("BombExplosion".equals(obj.getTag())) {
                         // Boss炸弹爆炸效果 - 深红色
-                        renderer.drawGradientCircle(
-                            transform.getPosition().x,
-                            transform.getPosition().y,
-                            attackRange.getRadius(),
-                            attackRange.getAlpha(),
-                            1.0f, 0.0f, 0.0f // 深红色
-                        );
+                        renderer.drawGradientCircle(x, y, radius, attackRange.getAlpha(), 1.0f, 0.0f, 0.0f);
                     } else {
                         // 玩家攻击范围 - 亮红色
-                        renderer.drawGradientCircle(
-                            transform.getPosition().x,
-                            transform.getPosition().y,
-                            attackRange.getRadius(),
-                            attackRange.getAlpha(),
-                            1.0f, 0.0f, 0.0f // 亮红色
-                        );
+                        renderer.drawGradientCircle(x, y, radius, attackRange.getAlpha(), 1.0f, 0.0f, 0.0f);
                     }
                 }
             }
             
             // 渲染精灵
-            if (obj.hasComponent(SpriteComponent.class) && obj.hasComponent(TransformComponent.class)) {
+            if (transform != null && obj.hasComponent(SpriteComponent.class)) {
                 SpriteComponent sprite = obj.getComponent(SpriteComponent.class);
-                TransformComponent transform = obj.getComponent(TransformComponent.class);
-                if (sprite.getImage() != null) {
-                    renderer.drawImage(
-                        sprite.getImage(), 
-                        transform.getPosition().x - sprite.getWidth() / 2, 
-                        transform.getPosition().y - sprite.getHeight() / 2,
-                        sprite.getWidth(),
-                        sprite.getHeight()
-                    );
+                float left = x - sprite.getWidth() / 2;
+                float top = y - sprite.getHeight() / 2;
+                if (sprite.getImage() != null && renderer.isVisible(left, top, sprite.getWidth(), sprite.getHeight())) {
+                    renderer.drawImage(sprite.getImage(), left, top, sprite.getWidth(), sprite.getHeight());
                 }
             }
-            
-            // 渲染粒子系统
-            if (obj.hasComponent(ParticleSystemComponent.class)) {
-                ParticleSystemComponent particleSystem = obj.getComponent(ParticleSystemComponent.class);
-                renderer.drawParticles(particleSystem);
-            }
         }
         
+        // 渲染粒子
+        renderer.drawParticles(ParticleEngine.getInstance());
+        
         // 渲染UI元素
-        renderHealthBars();
+        renderHealthBars(alpha);
         renderUI();
     }
     
@@ -283,92 +281,107 @@ public class GameScene extends Scene implements MainMenuComponent.GameScene {
             return; // 没有玩家对象，不显示游戏UI
         }
         
-        // UI区域定义 - 左侧独立UI栏
-        int gameAreaWidth = 800; // 游戏画面区域宽度
-        int uiStartX = gameAreaWidth + 10; // UI栏起始位置
-        int uiWidth = 280; // UI栏宽度
-        int lineHeight = 45; // 进一步增加行高，避免文字和进度条重叠
-        int currentY = 20;
-        
-        // 绘制UI背景区域
-        renderer.drawRect(uiStartX - 5, currentY - 10, uiWidth + 10, 550, 0.0f, 0.0f, 0.0f, 0.3f);
+        // 静态部分：背景、标签和状态文字，输入变化时才重绘
+        boolean showCooldowns = playerObj instanceof Player;
+        boolean audioEnabled = AudioSystemComponent.isAudioEnabled();
+        boolean bgmEnabled = BackgroundMusicComponent.isBgmEnabled();
+        boolean paused = gameLogic.isGamePaused();
+        if (hudLayer.isDirty() || showCooldowns != hudShowCooldowns || audioEnabled != hudAudioEnabled
+                || bgmEnabled != hudBgmEnabled || paused != hudPaused) {
+            hudShowCooldowns = showCooldowns;
+            hudAudioEnabled = audioEnabled;
+            hudBgmEnabled = bgmEnabled;
+            hudPaused = paused;
+            redrawHudLayer();
+        }
+        hudLayer.draw(renderer, GAME_AREA_WIDTH, 0);
         
-        // 游戏时间进度条
-        float timeProgress = gameLogic.getGameTimer() / gameLogic.getGameDuration();
-        renderer.drawText("时间: " + String.format("%.1f", gameLogic.getGameTimer()) + "s", uiStartX, currentY, 1.0f, 1.0f, 1.0f, 1.0f);
-        renderer.drawProgressBar(uiStartX, currentY + 18, uiWidth - 20, 15, timeProgress, 0.0f, 1.0f, 0.0f, 1.0f);
+        // 动态部分：时间和冷却进度条
+        int currentY = 20;
+        float gameTimer = gameLogic.getGameTimer();
+        float timeProgress = gameTimer / gameLogic.getGameDuration();
+        renderer.drawNumber(gameTimer, 1, "时间: ", "s", UI_START_X, currentY, 1.0f, 1.0f, 1.0f, 1.0f);
+        renderer.drawProgressBar(UI_START_X, currentY + 18, UI_WIDTH - 20, 15, timeProgress, 0.0f, 1.0f, 0.0f, 1.0f);
         currentY += 50; // 进一步增加间距
         
-        // 近战攻击冷却进度条
-        if (playerObj instanceof Player) {
+        if (showCooldowns) {
             Player player = (Player) playerObj;
-            float meleeProgress = player.getMeleeCooldownProgress();
-            renderer.drawText("近战攻击 (J)", uiStartX, currentY, 1.0f, 1.0f, 1.0f, 1.0f);
-            renderer.drawProgressBar(uiStartX, currentY + 18, uiWidth - 20, 12, meleeProgress, 1.0f, 0.5f, 0.0f, 1.0f);
-            currentY += lineHeight;
-            
+            // 近战攻击冷却进度条
+            renderer.drawProgressBar(UI_START_X, currentY + 18, UI_WIDTH - 20, 12, player.getMeleeCooldownProgress(), 1.0f, 0.5f, 0.0f, 1.0f);
+            currentY += UI_LINE_HEIGHT;
             // 远程攻击冷却进度条
-            float rangeProgress = player.getRangeCooldownProgress();
-            renderer.drawText("远程攻击 (U)", uiStartX, currentY, 1.0f, 1.0f, 1.0f, 1.0f);
-            renderer.drawProgressBar(uiStartX, currentY + 18, uiWidth - 20, 12, rangeProgress, 0.0f, 0.5f, 1.0f, 1.0f);
-            currentY += lineHeight;
-            
+            renderer.drawProgressBar(UI_START_X, currentY + 18, UI_WIDTH - 20, 12, player.getRangeCooldownProgress(), 0.0f, 0.5f, 1.0f, 1.0f);
+            currentY += UI_LINE_HEIGHT;
             // 炮弹攻击冷却进度条
-            float cannonProgress = player.getCannonCooldownProgress();
-            renderer.drawText("炮弹攻击 (I)", uiStartX, currentY, 1.0f, 1.0f, 1.0f, 1.0f);
-            renderer.drawProgressBar(uiStartX, currentY + 18, uiWidth - 20, 12, cannonProgress, 1.0f, 0.0f, 0.0f, 1.0f);
-            currentY += lineHeight;
+            renderer.drawProgressBar(UI_START_X, currentY + 18, UI_WIDTH - 20, 12, player.getCannonCooldownProgress(), 1.0f, 0.0f, 0.0f, 1.0f);
+        }
+        
+        // 游戏状态显示（在游戏画面中央）
+        if (gameLogic.isGameEnded()) {
+            int gameCenterX = GAME_AREA_WIDTH / 2; // 游戏画面中心X坐标
+            int gameCenterY = GAME_AREA_HEIGHT / 2; // 游戏画面中心Y坐标
+            
+            if (gameLogic.isGameWon()) {
+                renderer.drawText("胜利！", gameCenterX - 30, gameCenterY, 0.0f, 1.0f, 0.0f, 1.0f);
+            } else {
+                renderer.drawText("失败！", gameCenterX - 30, gameCenterY, 1.0f, 0.0f, 0.0f, 1.0f);
+            }
+        }
+    }
+    
+    /**
+     * 重绘UI栏的静态部分，坐标相对于UI图层（图层左上角位于游戏画面右边缘）
+     */
+    private void redrawHudLayer() {
+        CommandBuffer hud = hudLayer.begin();
+        int x = UI_START_X - GAME_AREA_WIDTH;
+        int currentY = 20;
+        int white = CommandBuffer.packColor(1.0f, 1.0f, 1.0f, 1.0f);
+        
+        // 绘制UI背景区域
+        hud.rect(x - 5, currentY - 10, UI_WIDTH + 10, 550, CommandBuffer.packColor(0.0f, 0.0f, 0.0f, 0.3f));
+        currentY += 50; // 时间和进度条每帧绘制
+        
+        if (hudShowCooldowns) {
+            hud.text("近战攻击 (J)", x, currentY, white);
+            currentY += UI_LINE_HEIGHT;
+            hud.text("远程攻击 (U)", x, currentY, white);
+            currentY += UI_LINE_HEIGHT;
+            hud.text("炮弹攻击 (I)", x, currentY, white);
+            currentY += UI_LINE_HEIGHT;
         }
         
         // 分隔线
-        renderer.drawLine(uiStartX, currentY, uiStartX + uiWidth - 20, currentY, 0.5f, 0.5f, 0.5f, 1.0f);
+        hud.line(x, currentY, x + UI_WIDTH - 20, currentY, CommandBuffer.packColor(0.5f, 0.5f, 0.5f, 1.0f));
         currentY += 15;
         
         // 音效状态显示
-        String audioStatus = AudioSystemComponent.isAudioEnabled() ? "音效: 开启" : "音效: 关闭";
-        float audioR = AudioSystemComponent.isAudioEnabled() ? 0.0f : 1.0f;
-        float audioG = AudioSystemComponent.isAudioEnabled() ? 1.0f : 0.0f;
-        renderer.drawText(audioStatus + " (M)", uiStartX, currentY, audioR, audioG, 0.0f, 1.0f);
-        currentY += lineHeight;
+        int enabledColor = CommandBuffer.packColor(0.0f, 1.0f, 0.0f, 1.0f);
+        int disabledColor = CommandBuffer.packColor(1.0f, 0.0f, 0.0f, 1.0f);
+        hud.text(hudAudioEnabled ? "音效: 开启 (M)" : "音效: 关闭 (M)", x, currentY, hudAudioEnabled ? enabledColor : disabledColor);
+        currentY += UI_LINE_HEIGHT;
         
         // 背景音乐状态显示
-        String bgmStatus = BackgroundMusicComponent.isBgmEnabled() ? "背景音乐: 开启" : "背景音乐: 关闭";
-        float bgmR = BackgroundMusicComponent.isBgmEnabled() ? 0.0f : 1.0f;
-        float bgmG = BackgroundMusicComponent.isBgmEnabled() ? 1.0f : 0.0f;
-        renderer.drawText(bgmStatus + " (N)", uiStartX, currentY, bgmR, bgmG, 0.0f, 1.0f);
-        currentY += lineHeight;
+        hud.text(hudBgmEnabled ? "背景音乐: 开启 (N)" : "背景音乐: 关闭 (N)", x, currentY, hudBgmEnabled ? enabledColor : disabledColor);
+        currentY += UI_LINE_HEIGHT;
         
         // 暂停游戏提示
-        String pauseStatus = gameLogic.isGamePaused() ? "游戏已暂停 (P)" : "暂停游戏 (P)";
-        float pauseR = gameLogic.isGamePaused() ? 1.0f : 0.0f;
-        float pauseG = gameLogic.isGamePaused() ? 0.0f : 1.0f;
-        renderer.drawText(pauseStatus, uiStartX, currentY, pauseR, pauseG, 0.0f, 1.0f);
-        currentY += lineHeight;
+        hud.text(hudPaused ? "游戏已暂停 (P)" : "暂停游戏 (P)", x, currentY, hudPaused ? disabledColor : enabledColor);
+        currentY += UI_LINE_HEIGHT;
         
         // 保存游戏提示（仅在暂停时显示）
-        if (gameLogic.isGamePaused()) {
-            renderer.drawText("保存游戏 (F12)", uiStartX, currentY, 1.0f, 1.0f, 0.0f, 1.0f);
-            currentY += lineHeight;
+        if (hudPaused) {
+            hud.text("保存游戏 (F12)", x, currentY, CommandBuffer.packColor(1.0f, 1.0f, 0.0f, 1.0f));
+            currentY += UI_LINE_HEIGHT;
         }
         
         // 移动控制提示
-        renderer.drawText("移动: WASD", uiStartX, currentY, 0.8f, 0.8f, 0.8f, 1.0f);
-        currentY += lineHeight;
+        hud.text("移动: WASD", x, currentY, CommandBuffer.packColor(0.8f, 0.8f, 0.8f, 1.0f));
         
-        // 游戏状态显示（在游戏画面中央）
-        if (gameLogic.isGameEnded()) {
-            int gameCenterX = 400; // 游戏画面中心X坐标
-            int gameCenterY = 300; // 游戏画面中心Y坐标
-            
-            if (gameLogic.isGameWon()) {
-                renderer.drawText("胜利！", gameCenterX - 30, gameCenterY, 0.0f, 1.0f, 0.0f, 1.0f);
-            } else {
-                renderer.drawText("失败！", gameCenterX - 30, gameCenterY, 1.0f, 0.0f, 0.0f, 1.0f);
-            }
-        }
+        hudLayer.end();
     }
 
-    private void renderHealthBars() {
+    private void renderHealthBars(float alpha) {
         for (GameObject obj : getGameObjects()) {
             if (!obj.isActive()) continue;
             if (obj.hasComponent(HealthComponent.class)) {
@@ -376,9 +389,10 @@ public class GameScene extends Scene implements MainMenuComponent.GameScene {
                 if (!health.isAlive()) continue;
                 TransformComponent transform = obj.getComponent(TransformComponent.class);
                 if (health != null && transform != null) {
-                    float x = transform.getPosition().x - 15;
-                    float y = transform.getPosition().y - 30; // Move it up a bit
+                    float x = transform.getInterpolatedX(alpha) - 15;
+                    float y = transform.getInterpolatedY(alpha) - 30; // Move it up a bit
                     float maxWidth = 30;
+                    if (!renderer.isVisible(x, y, maxWidth, 5)) continue;
                     float currentWidth = maxWidth * ((float)health.getHealth() / health.getMaxHealth());
                     renderer.drawRect(x, y, maxWidth, 5, 0.5f, 0.0f, 0.0f, 1.0f);
                     renderer.drawRect(x, y, currentWidth, 5, 0.0f, 1.0f, 0.0f, 1.0f);
@@ -0,0 +1,109 @@
+package com.gameengine.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 图像资源管理器
+ * 每个路径只从磁盘解码一次，并按需要的尺寸缩放为与屏幕兼容的图像后缓存，
+ * 所有使用相同路径和尺寸的精灵共享同一个图像对象。
+ * 缩放后的尺寸与绘制尺寸一致，drawImage不必每帧缩放。
+ */
+public class AssetManager {
+    private static AssetManager instance;
+
+    private final Map<String, BufferedImage> sources = new ConcurrentHashMap<>();
+    private final Map<String, BufferedImage> images = new ConcurrentHashMap<>();
+
+    private AssetManager() {
+    }
+
+    public static synchronized AssetManager getInstance() {
+        if (instance == null) {
+            instance = new AssetManager();
+        }
+        return instance;
+    }
+
+    /**
+     * 获取缩放到指定尺寸的图像
+     * 读取失败时打印错误并返回同尺寸的全透明占位图像，绘制时不显示任何内容，之后不再重试
+     */
+    public BufferedImage getImage(String path, int width, int height) {
+        return images.computeIfAbsent(key(path, width, height), k -> createScaled(path, width, height));
+    }
+
+    /**
+     * 提前解码并缩放图像，避免在游戏过程中第一次使用时卡顿
+     */
+    public void preload(String path, int width, int height) {
+        getImage(path, width, height);
+    }
+
+    /**
+     * 检查图像是否已缓存
+     */
+    public boolean isLoaded(String path, int width, int height) {
+        return images.containsKey(key(path, width, height));
+    }
+
+    /**
+     * 清空所有缓存的图像
+     */
+    public void clear() {
+        sources.clear();
+        images.clear();
+    }
+
+    private static String key(String path, int width, int height) {
+        return path + '@' + width + 'x' + height;
+    }
+
+    private BufferedImage createScaled(String path, int width, int height) {
+        BufferedImage source = sources.computeIfAbsent(path, AssetManager::decode);
+        if (source == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB); // 全透明的占位图像
+        }
+
+        BufferedImage scaled = createCompatibleImage(width, height);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    // ConcurrentHashMap不能保存null，读取失败时返回null表示不缓存源图像，由调用方使用占位图像
+    private static BufferedImage decode(String path) {
+        try {
+            BufferedImage image = ImageIO.read(new File(path));
+            if (image == null) {
+                System.err.println("Unsupported image format: " + path);
+            }
+            return image;
+        } catch (IOException e) {
+            System.err.println("Error loading image: " + path);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // 与默认屏幕像素格式一致的图像可以直接复制到屏幕，无头环境下退回普通ARGB图像
+    private static BufferedImage createCompatibleImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            GraphicsConfiguration config = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+            return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    }
+}
@@ -0,0 +1,322 @@
+package com.gameengine.graphics;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * 绘制命令缓冲区
+ * 把每次绘制调用记录为一个整数操作码、若干float参数和一个打包的ARGB颜色，
+ * 图像和文本等对象参数放在单独的引用数组中。所有数组每帧复用，记录命令不分配内存。
+ * 记录完成后通过replay按顺序在Graphics2D上执行。
+ */
+public class CommandBuffer {
+    // 操作码
+    static final int OP_RECT = 0;            // x, y, width, height
+    static final int OP_CIRCLE = 1;          // x, y, radius
+    static final int OP_LINE = 2;            // x1, y1, x2, y2
+    static final int OP_IMAGE = 3;           // x, y, width, height + 图像
+    static final int OP_PROGRESS_BAR = 4;    // x, y, width, height, progress
+    static final int OP_TEXT = 5;            // x, y + 文本
+    static final int OP_GRADIENT_CIRCLE = 6; // x, y, radius
+    static final int OP_NUMBER = 7;          // x, y, value, decimals + 前缀、后缀
+
+    // 每种操作码占用的float参数和引用参数个数
+    private static final int[] ARG_SIZES = {4, 3, 4, 4, 5, 2, 3, 4};
+    private static final int[] REF_SIZES = {0, 0, 0, 1, 0, 1, 0, 2};
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final Color PROGRESS_BACKGROUND = new Color(0.2f, 0.2f, 0.2f, 1.0f);
+
+    private int[] ops = new int[INITIAL_CAPACITY];
+    private int[] colors = new int[INITIAL_CAPACITY];
+    private float[] args = new float[INITIAL_CAPACITY * 4];
+    private Object[] refs = new Object[INITIAL_CAPACITY / 4];
+    private int commandCount;
+    private int argCount;
+    private int refCount;
+
+    // 回放时使用的颜色缓存，按ARGB值哈希
+    private final int[] colorKeys = new int[256];
+    private final Color[] colorValues = new Color[256];
+    private final TextCache textCache = new TextCache();
+
+    /**
+     * 清空所有命令，保留已分配的数组
+     */
+    public void reset() {
+        Arrays.fill(refs, 0, refCount, null);
+        commandCount = 0;
+        argCount = 0;
+        refCount = 0;
+    }
+
+    /**
+     * 记录矩形
+     */
+    public void rect(float x, float y, float width, float height, int argb) {
+        command(OP_RECT, argb, 4);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = width;
+        args[argCount++] = height;
+    }
+
+    /**
+     * 记录实心圆，(x, y)为圆心
+     */
+    public void circle(float x, float y, float radius, int argb) {
+        command(OP_CIRCLE, argb, 3);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = radius;
+    }
+
+    /**
+     * 记录线段
+     */
+    public void line(float x1, float y1, float x2, float y2, int argb) {
+        command(OP_LINE, argb, 4);
+        args[argCount++] = x1;
+        args[argCount++] = y1;
+        args[argCount++] = x2;
+        args[argCount++] = y2;
+    }
+
+    /**
+     * 记录图像
+     */
+    public void image(Image image, float x, float y, float width, float height) {
+        command(OP_IMAGE, 0, 4);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = width;
+        args[argCount++] = height;
+        ref(image);
+    }
+
+    /**
+     * 记录进度条，progress会被限制在0-1之间
+     */
+    public void progressBar(float x, float y, float width, float height, float progress, int argb) {
+        command(OP_PROGRESS_BAR, argb, 5);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = width;
+        args[argCount++] = height;
+        args[argCount++] = Math.max(0, Math.min(1, progress));
+    }
+
+    /**
+     * 记录文本，(x, y)为基线起点
+     */
+    public void text(String text, float x, float y, int argb) {
+        command(OP_TEXT, argb, 2);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        ref(text);
+    }
+
+    /**
+     * 记录带前缀和后缀的数字，不需要调用方拼接字符串
+     * @param decimals 保留的小数位数
+     * @param prefix 数字前的文本，可以为null
+     * @param suffix 数字后的文本，可以为null
+     */
+    public void number(float value, int decimals, String prefix, String suffix, float x, float y, int argb) {
+        command(OP_NUMBER, argb, 4);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = value;
+        args[argCount++] = decimals;
+        ref(prefix);
+        ref(suffix);
+    }
+
+    /**
+     * 记录径向渐变圆，中心为argb颜色，边缘完全透明
+     */
+    public void gradientCircle(float x, float y, float radius, int argb) {
+        command(OP_GRADIENT_CIRCLE, argb, 3);
+        args[argCount++] = x;
+        args[argCount++] = y;
+        args[argCount++] = radius;
+    }
+
+    /**
+     * 按记录顺序执行所有命令
+     */
+    public void replay(Graphics2D g) {
+        replay(g, 0, commandCount, 0, 0);
+    }
+
+    /**
+     * 执行下标[from, to)的命令，argOffset和refOffset是第from条命令的参数和引用起始位置
+     */
+    void replay(Graphics2D g, int from, int to, int argOffset, int refOffset) {
+        int a = argOffset;
+        int r = refOffset;
+        for (int i = from; i < to; i++) {
+            int argb = colors[i];
+            switch (ops[i]) {
+                case OP_RECT:
+                    g.setColor(color(argb));
+                    g.fillRect((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                    a += 4;
+                    break;
+                case OP_CIRCLE: {
+                    float radius = args[a + 2];
+                    g.setColor(color(argb));
+                    g.fillOval((int) (args[a] - radius), (int) (args[a + 1] - radius), (int) (radius * 2), (int) (radius * 2));
+                    a += 3;
+                    break;
+                }
+                case OP_LINE:
+                    g.setColor(color(argb));
+                    g.drawLine((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3]);
+                    a += 4;
+                    break;
+                case OP_IMAGE: {
+                    Image image = (Image) refs[r++];
+                    if (image != null) {
+                        g.drawImage(image, (int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3], null);
+                    }
+                    a += 4;
+                    break;
+                }
+                case OP_PROGRESS_BAR:
+                    drawProgressBar(g, args[a], args[a + 1], args[a + 2], args[a + 3], args[a + 4], argb);
+                    a += 5;
+                    break;
+                case OP_TEXT:
+                    drawText(g, (String) refs[r++], args[a], args[a + 1], argb);
+                    a += 2;
+                    break;
+                case OP_GRADIENT_CIRCLE:
+                    drawGradientCircle(g, args[a], args[a + 1], args[a + 2], argb);
+                    a += 3;
+                    break;
+                case OP_NUMBER:
+                    drawNumber(g, (String) refs[r], args[a + 2], (int) args[a + 3], (String) refs[r + 1], args[a], args[a + 1], argb);
+                    r += 2;
+                    a += 4;
+                    break;
+                default:
+                    throw new IllegalStateException("未知的绘制命令: " + ops[i]);
+            }
+        }
+    }
+
+    /**
+     * 获取已记录的命令数量
+     */
+    public int size() {
+        return commandCount;
+    }
+
+    // 以下供SoftwareRasterizer直接读取命令数据，数组在下一次reset或记录命令前有效
+
+    int opAt(int index) {
+        return ops[index];
+    }
+
+    int colorAt(int index) {
+        return colors[index];
+    }
+
+    float[] args() {
+        return args;
+    }
+
+    Object[] refs() {
+        return refs;
+    }
+
+    static int argSize(int op) {
+        return ARG_SIZES[op];
+    }
+
+    static int refSize(int op) {
+        return REF_SIZES[op];
+    }
+
+    /**
+     * 把0-1范围的颜色分量打包为ARGB整数，超出范围的分量会被截断
+     */
+    public static int packColor(float r, float g, float b, float a) {
+        return (toByte(a) << 24) | (toByte(r) << 16) | (toByte(g) << 8) | toByte(b);
+    }
+
+    private static int toByte(float value) {
+        if (value <= 0) return 0;
+        if (value >= 1) return 255;
+        return (int) (value * 255 + 0.5f);
+    }
+
+    private void command(int op, int argb, int argSize) {
+        if (commandCount == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+            colors = Arrays.copyOf(colors, colors.length * 2);
+        }
+        if (argCount + argSize > args.length) {
+            args = Arrays.copyOf(args, Math.max(args.length * 2, argCount + argSize));
+        }
+        ops[commandCount] = op;
+        colors[commandCount] = argb;
+        commandCount++;
+    }
+
+    private void ref(Object value) {
+        if (refCount == refs.length) {
+            refs = Arrays.copyOf(refs, refs.length * 2);
+        }
+        refs[refCount++] = value;
+    }
+
+    // 同一颜色只创建一次Color对象
+    private Color color(int argb) {
+        int index = (argb ^ (argb >>> 11) ^ (argb >>> 22)) & (colorKeys.length - 1);
+        Color cached = colorValues[index];
+        if (cached == null || colorKeys[index] != argb) {
+            cached = new Color(argb, true);
+            colorKeys[index] = argb;
+            colorValues[index] = cached;
+        }
+        return cached;
+    }
+
+    private void drawProgressBar(Graphics2D g, float x, float y, float width, float height, float progress, int argb) {
+        // 绘制背景
+        g.setColor(PROGRESS_BACKGROUND);
+        g.fillRect((int) x, (int) y, (int) width, (int) height);
+
+        // 绘制进度
+        g.setColor(color(argb));
+        g.fillRect((int) x, (int) y, (int) (width * progress), (int) height);
+
+        // 绘制边框
+        g.setColor(Color.WHITE);
+        g.drawRect((int) x, (int) y, (int) width, (int) height);
+    }
+
+    private void drawText(Graphics2D g, String text, float x, float y, int argb) {
+        g.setColor(color(argb));
+        textCache.drawString(g, text, (int) x, (int) y);
+    }
+
+    private void drawNumber(Graphics2D g, String prefix, float value, int decimals, String suffix, float x, float y, int argb) {
+        g.setColor(color(argb));
+        x = (int) x;
+        y = (int) y;
+        if (prefix != null) {
+            x += textCache.drawString(g, prefix, x, y);
+        }
+        x += textCache.drawNumber(g, value, decimals, x, y);
+        if (suffix != null) {
+            textCache.drawString(g, suffix, x, y);
+        }
+    }
+
+    private void drawGradientCircle(Graphics2D g, float x, float y, float radius, int argb) {
+        GradientSpriteCache.draw(g, x, y, radius, argb);
+    }
+}
@@ -0,0 +1,80 @@
+package com.gameengine.graphics;
+
+import java.awt.*;
+import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * 径向渐变精灵缓存
+ * 径向渐变填充是Java2D中最慢的操作之一。这里把"中心不透明、边缘透明"的渐变圆预先绘制成图像，
+ * 按量化后的半径和RGB颜色缓存，整体透明度通过AlphaComposite施加。
+ * 半径量化到RADIUS_STEP像素，绘制时不缩放（缩放复制比直接复制慢2-3倍），
+ * 每次绘制只相当于一次图像复制。
+ * 精灵创建后不再修改，缓存由所有CommandBuffer共享。
+ */
+final class GradientSpriteCache {
+    private static final int RADIUS_STEP = 2; // 半径量化步长（像素）
+    private static final int CACHE_SIZE = 256;
+
+    // 按键直接映射，冲突时替换旧的精灵
+    private static final long[] keys = new long[CACHE_SIZE];
+    private static final BufferedImage[] sprites = new BufferedImage[CACHE_SIZE];
+    private static final AlphaComposite[] composites = new AlphaComposite[256];
+
+    private GradientSpriteCache() {
+    }
+
+    /**
+     * 以(x, y)为圆心绘制渐变圆，中心颜色和透明度由argb给出，边缘完全透明
+     */
+    static void draw(Graphics2D g, float x, float y, float radius, int argb) {
+        int alpha = argb >>> 24;
+        if (radius < 0.5f || alpha == 0) return;
+
+        int spriteRadius = Math.max(RADIUS_STEP, Math.round(radius / RADIUS_STEP) * RADIUS_STEP);
+        BufferedImage sprite = sprite(spriteRadius, argb & 0xFFFFFF);
+
+        Composite previous = g.getComposite();
+        g.setComposite(composite(alpha));
+        g.drawImage(sprite, (int) (x - spriteRadius), (int) (y - spriteRadius), null);
+        g.setComposite(previous);
+    }
+
+    private static synchronized BufferedImage sprite(int radius, int rgb) {
+        long key = ((long) radius << 24) | rgb;
+        int index = (int) ((key ^ (key >>> 29)) * 0x9E3779B1L >>> 24) & (CACHE_SIZE - 1);
+        BufferedImage sprite = sprites[index];
+        if (sprite == null || keys[index] != key) {
+            sprite = createSprite(radius, rgb);
+            sprites[index] = sprite;
+            keys[index] = key;
+        }
+        return sprite;
+    }
+
+    private static AlphaComposite composite(int alpha) {
+        AlphaComposite composite = composites[alpha];
+        if (composite == null) {
+            composite = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255.0f);
+            composites[alpha] = composite;
+        }
+        return composite;
+    }
+
+    private static BufferedImage createSprite(int radius, int rgb) {
+        int size = radius * 2;
+        BufferedImage sprite = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = sprite.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            Color center = new Color(rgb | 0xFF000000, true);
+            Color edge = new Color(rgb, true);
+            g.setPaint(new RadialGradientPaint(new Point2D.Float(radius, radius), radius,
+                    new float[] {0.0f, 1.0f}, new Color[] {center, edge}));
+            g.fillOval(0, 0, size, size);
+        } finally {
+            g.dispose();
+        }
+        return sprite;
+    }
+}
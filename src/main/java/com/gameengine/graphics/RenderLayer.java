@@ -0,0 +1,128 @@
+package com.gameengine.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+/**
+ * 缓存图层
+ * 把很少变化的内容预先绘制到图像中，之后每帧只需一次drawImage合成。
+ * 内容变化时通过begin/end重新绘制：
+ * <pre>
+ * if (layer.isDirty()) {
+ *     CommandBuffer commands = layer.begin();
+ *     commands.rect(...);
+ *     layer.end();
+ * }
+ * layer.draw(renderer, x, y);
+ * </pre>
+ * 图层内部最多有三张图像，记录每张图像最后被哪一帧引用。重绘只写入没有被尚未回放完的帧引用的图像，
+ * 因此不会改写面板仍在回放的帧所用的图像；如果暂时没有空闲的图像，本次重绘被放弃，
+ * 图层保持需要重绘的状态，下一帧再试。
+ */
+public class RenderLayer {
+    private final int width;
+    private final int height;
+    private final BufferedImage[] images = new BufferedImage[3];
+    private final long[] lastUsedFrames = new long[images.length]; // 每张图像最后被引用的帧序号
+    private final CommandBuffer commands = new CommandBuffer();
+    private Renderer renderer; // 最近一次合成到的渲染器，尚未合成时为null
+    private int current = -1; // 当前可用的图像，-1表示尚未绘制
+    private boolean dirty = true;
+
+    public RenderLayer(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("图层尺寸必须为正数: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * 开始重绘，返回用于记录图层内容的命令缓冲区，坐标相对于图层左上角
+     */
+    public CommandBuffer begin() {
+        commands.reset();
+        return commands;
+    }
+
+    /**
+     * 结束重绘，把记录的命令绘制到空闲的图像上并切换为当前图像
+     * 所有图像都还在被未回放完的帧引用时放弃本次重绘，图层保持需要重绘的状态
+     */
+    public void end() {
+        int target = findFreeImage();
+        if (target < 0) {
+            commands.reset();
+            return;
+        }
+        if (images[target] == null) {
+            images[target] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g = images[target].createGraphics();
+        try {
+            // 清空为完全透明
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, width, height);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            commands.replay(g);
+        } finally {
+            g.dispose();
+        }
+        commands.reset();
+        current = target;
+        dirty = false;
+    }
+
+    // 优先复用已创建的空闲图像，其次创建新图像，都没有时返回-1
+    private int findFreeImage() {
+        long oldestFrameInUse = renderer != null ? renderer.getOldestFrameInUse() : Long.MAX_VALUE;
+        int empty = -1;
+        for (int i = 0; i < images.length; i++) {
+            if (i == current) {
+                continue;
+            }
+            if (images[i] == null) {
+                if (empty < 0) empty = i;
+            } else if (lastUsedFrames[i] < oldestFrameInUse) {
+                return i;
+            }
+        }
+        return empty;
+    }
+
+    /**
+     * 把图层合成到指定位置
+     */
+    public void draw(Renderer renderer, float x, float y) {
+        if (current >= 0) {
+            this.renderer = renderer;
+            lastUsedFrames[current] = renderer.getFrameNumber();
+            renderer.drawImage(images[current], x, y, width, height);
+        }
+    }
+
+    /**
+     * 标记图层需要重绘
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * 检查图层是否需要重绘
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gameengine.graphics;
 
+import com.gameengine.components.ParticleEngine;
 import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
 import javax.swing.*;
@@ -8,24 +9,88 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 渲染器
+ * 支持两种模式：
+ * PASSIVE 由Swing的重绘管理器在事件分发线程上绘制，帧完成时间不确定；
+ * ACTIVE 在Canvas上使用BufferStrategy页面翻转，由游戏循环线程同步绘制并提交，
+ * 可以测量每帧的绘制和提交耗时。
+ * 每帧命令的绘制后端也有两种：
+ * JAVA2D 在Graphics2D上逐条回放命令；
+ * SOFTWARE 由SoftwareRasterizer分图块并行写入像素数组，最后整体复制到窗口，适合大量图元。
  */
 public class Renderer extends JFrame {
+    /**
+     * 渲染模式
+     */
+    public enum RenderMode {
+        PASSIVE,
+        ACTIVE
+    }
+    
+    /**
+     * 绘制后端
+     */
+    public enum RenderBackend {
+        JAVA2D,
+        SOFTWARE
+    }
+    
+    private static final int BUFFER_COUNT = 2;
+    private static final float LATENCY_SMOOTHING = 0.1f; // 平均耗时的平滑系数
+    private static final int FRESH = 4; // 中间槽位的帧尚未被面板取走
+    
     private int width;
     private int height;
     private String title;
+    private final RenderMode renderMode;
+    private final RenderBackend renderBackend;
+    private final SoftwareRasterizer rasterizer; // 仅SOFTWARE后端使用
     private GamePanel gamePanel;
+    private Canvas canvas;
+    private BufferStrategy bufferStrategy;
     private InputManager inputManager;
+    // 主动渲染的耗时统计，单位毫秒
+    private volatile float lastRenderTime;
+    private volatile float lastPresentLatency;
+    private volatile float averagePresentLatency;
+    // 三重缓冲：游戏循环线程独占一个缓冲区记录命令，面板独占一个缓冲区回放，
+    // 最近完成的一帧放在中间槽位，两边通过原子交换取放，互不等待。
+    // 缓冲区一经发布就不再修改，直到面板把它换回中间槽位、再被游戏循环取走
+    private final CommandBuffer[] buffers = {new CommandBuffer(), new CommandBuffer(), new CommandBuffer()};
+    private final long[] bufferFrames = new long[buffers.length]; // 每个缓冲区记录的帧序号
+    private final AtomicInteger published = new AtomicInteger(1); // 中间槽位的缓冲区下标，可带FRESH标记
+    private int recording = 0; // 游戏循环线程使用
+    private int painting = 2;  // 面板使用
+    private CommandBuffer backBuffer = buffers[recording];
+    private long frameNumber;                // 正在记录的帧序号，从1开始
+    private volatile long paintingFrame;     // 面板正在回放的帧序号，0表示尚未回放
+    // 视口裁剪：完全在视口之外的对象不生成绘制命令
+    private float viewportX, viewportY, viewportWidth, viewportHeight;
+    private int drawnCount, culledCount; // 本帧统计
+    private volatile int lastDrawnCount, lastCulledCount; // 上一帧统计
     
     public Renderer(int width, int height, String title) {
+        this(width, height, title, RenderMode.PASSIVE);
+    }
+    
+    public Renderer(int width, int height, String title, RenderMode renderMode) {
+        this(width, height, title, renderMode, RenderBackend.JAVA2D);
+    }
+    
+    public Renderer(int width, int height, String title, RenderMode renderMode, RenderBackend renderBackend) {
         this.width = width;
         this.height = height;
         this.title = title;
+        this.renderMode = renderMode;
+        this.renderBackend = renderBackend;
+        this.rasterizer = renderBackend == RenderBackend.SOFTWARE ? new SoftwareRasterizer(width, height) : null;
         this.inputManager = InputManager.getInstance();
+        this.viewportWidth = width;
+        this.viewportHeight = height;
         
         initialize();
     }
@@ -37,15 +102,34 @@ public class Renderer extends JFrame {
         setLocationRelativeTo(null);
         setResizable(false);
         
-        gamePanel = new GamePanel();
-        add(gamePanel);
+        Component surface;
+        if (renderMode == RenderMode.ACTIVE) {
+            // 由游戏循环自行绘制，忽略系统的重绘请求
+            setIgnoreRepaint(true);
+            canvas = new Canvas();
+            canvas.setPreferredSize(new Dimension(width, height));
+            canvas.setBackground(Color.BLACK);
+            canvas.setIgnoreRepaint(true);
+            canvas.setFocusable(false); // 键盘焦点留在窗口上
+            surface = canvas;
+        } else {
+            gamePanel = new GamePanel();
+            surface = gamePanel;
+        }
+        add(surface);
         
-        setupInput();
+        setupInput(surface);
         
         setVisible(true);
+        
+        if (canvas != null) {
+            // 缓冲策略只能在Canvas显示之后创建
+            canvas.createBufferStrategy(BUFFER_COUNT);
+            bufferStrategy = canvas.getBufferStrategy();
+        }
     }
     
-    private void setupInput() {
+    private void setupInput(Component surface) {
         // 键盘输入
         addKeyListener(new KeyAdapter() {
             @Override
@@ -59,8 +143,9 @@ public class Renderer extends JFrame {
             }
         });
         
-        // 鼠标输入
-        addMouseListener(new MouseAdapter() {
+        // 鼠标输入，Canvas是重量级组件，鼠标事件不会传给窗口，需要直接监听绘制表面
+        Component mouseTarget = surface == canvas ? canvas : this;
+        mouseTarget.addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
                 inputManager.onMousePressed(e.getButton());
@@ -72,7 +157,7 @@ public class Renderer extends JFrame {
             }
         });
         
-        addMouseMotionListener(new MouseAdapter() {
+        mouseTarget.addMouseMotionListener(new MouseAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
                 inputManager.onMouseMoved(e.getX(), e.getY());
@@ -87,74 +172,199 @@ public class Renderer extends JFrame {
      * 开始渲染帧
      */
     public void beginFrame() {
-        gamePanel.clear();
+        frameNumber++;
+        bufferFrames[recording] = frameNumber;
+        backBuffer.reset();
+        drawnCount = 0;
+        culledCount = 0;
     }
     
     /**
      * 结束渲染帧
+     * 被动模式下把本帧发布到中间槽位并请求重绘，换回的缓冲区用于记录下一帧，不等待面板；
+     * 主动模式下立即绘制并提交本帧
      */
     public void endFrame() {
+        lastDrawnCount = drawnCount;
+        lastCulledCount = culledCount;
+        if (bufferStrategy != null) {
+            present();
+            return;
+        }
+        recording = published.getAndSet(recording | FRESH) & ~FRESH;
+        backBuffer = buffers[recording];
         gamePanel.repaint();
     }
     
+    /**
+     * 获取正在记录的帧序号
+     */
+    long getFrameNumber() {
+        return frameNumber;
+    }
+    
+    /**
+     * 获取仍可能被回放的最早帧序号，更早的帧引用的图像可以安全改写
+     * 主动模式下帧在记录它的线程上同步回放，之前的帧都已完成
+     */
+    long getOldestFrameInUse() {
+        if (bufferStrategy != null) {
+            return frameNumber;
+        }
+        // 面板取走新帧后才更新paintingFrame，期间返回的值偏小，只会更保守
+        return paintingFrame;
+    }
+    
+    // 主动模式：在缓冲策略的后台页面上回放本帧命令，然后翻转页面
+    private void present() {
+        long start = System.nanoTime();
+        long presentTime;
+        do {
+            do {
+                Graphics2D g = (Graphics2D) bufferStrategy.getDrawGraphics();
+                try {
+                    g.setColor(Color.BLACK);
+                    g.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+                    g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    paintFrame(g, backBuffer);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            
+            presentTime = System.nanoTime();
+            bufferStrategy.show();
+            Toolkit.getDefaultToolkit().sync(); // 把绘制请求推送到显示系统
+        } while (bufferStrategy.contentsLost());
+        
+        long end = System.nanoTime();
+        float latency = (end - presentTime) / 1_000_000.0f;
+        lastPresentLatency = latency;
+        averagePresentLatency += (latency - averagePresentLatency) * LATENCY_SMOOTHING;
+        lastRenderTime = (end - start) / 1_000_000.0f;
+    }
+    
+    // 用选定的后端绘制一帧命令
+    private void paintFrame(Graphics2D g, CommandBuffer frame) {
+        if (rasterizer != null) {
+            g.drawImage(rasterizer.render(frame), 0, 0, null);
+        } else {
+            frame.replay(g);
+        }
+    }
+    
     /**
      * 绘制矩形
      */
     public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new RectDrawable(x, y, width, height, r, g, b, a));
+        backBuffer.rect(x, y, width, height, CommandBuffer.packColor(r, g, b, a));
     }
     
     /**
      * 绘制圆形
      */
     public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new CircleDrawable(x, y, radius, r, g, b, a));
+        backBuffer.circle(x, y, radius, CommandBuffer.packColor(r, g, b, a));
     }
     
     /**
      * 绘制线条
      */
     public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new LineDrawable(x1, y1, x2, y2, r, g, b, a));
+        backBuffer.line(x1, y1, x2, y2, CommandBuffer.packColor(r, g, b, a));
     }
 
     /**
      * 绘制图像
      */
     public void drawImage(Image image, float x, float y, int width, int height) {
-        gamePanel.addDrawable(new ImageDrawable(image, x, y, width, height));
+        backBuffer.image(image, x, y, width, height);
     }
     
     /**
      * 绘制进度条
      */
     public void drawProgressBar(float x, float y, float width, float height, float progress, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new ProgressBarDrawable(x, y, width, height, progress, r, g, b, a));
+        backBuffer.progressBar(x, y, width, height, progress, CommandBuffer.packColor(r, g, b, a));
     }
     
     /**
      * 绘制文本
      */
     public void drawText(String text, float x, float y, float r, float g, float b, float a) {
-        gamePanel.addDrawable(new TextDrawable(text, x, y, r, g, b, a));
+        backBuffer.text(text, x, y, CommandBuffer.packColor(r, g, b, a));
+    }
+    
+    /**
+     * 绘制带前缀和后缀的数字，适合每帧变化的数值标签，不需要拼接字符串
+     * @param decimals 保留的小数位数
+     * @param prefix 数字前的文本，可以为null
+     * @param suffix 数字后的文本，可以为null
+     */
+    public void drawNumber(float value, int decimals, String prefix, String suffix, float x, float y, float r, float g, float b, float a) {
+        backBuffer.number(value, decimals, prefix, suffix, x, y, CommandBuffer.packColor(r, g, b, a));
     }
     
     /**
      * 绘制渐变圆形
      */
     public void drawGradientCircle(float x, float y, float radius, float alpha, float r, float g, float b) {
-        gamePanel.addDrawable(new GradientCircleDrawable(x, y, radius, alpha, r, g, b));
+        backBuffer.gradientCircle(x, y, radius, CommandBuffer.packColor(r, g, b, alpha));
     }
     
     /**
-     * 绘制粒子系统
+     * 绘制粒子引擎中的所有粒子
      */
-    public void drawParticles(com.gameengine.components.ParticleSystemComponent particleSystem) {
-        if (particleSystem.isActive()) {
-            for (com.gameengine.components.ParticleSystemComponent.Particle particle : particleSystem.getParticles()) {
-                gamePanel.addDrawable(new ParticleDrawable(particle));
+    public void drawParticles(ParticleEngine particles) {
+        for (int i = 0, count = particles.getCount(); i < count; i++) {
+            float size = particles.getSize(i);
+            float x = particles.getX(i);
+            float y = particles.getY(i);
+            if (!isVisible(x - size / 2, y - size / 2, size, size)) {
+                continue;
             }
+            int alpha = (int) (particles.getAlpha(i) * 255 + 0.5f);
+            backBuffer.circle(x, y, size / 2, (alpha << 24) | particles.getColor(i));
+        }
+    }
+    
+    /**
+     * 设置视口，即游戏画面中可见的区域
+     */
+    public void setViewport(float x, float y, float width, float height) {
+        this.viewportX = x;
+        this.viewportY = y;
+        this.viewportWidth = width;
+        this.viewportHeight = height;
+    }
+    
+    /**
+     * 检查矩形范围是否与视口相交，并计入本帧的绘制或裁剪统计
+     * 调用方在返回false时应跳过绘制
+     */
+    public boolean isVisible(float x, float y, float width, float height) {
+        boolean visible = x < viewportX + viewportWidth && x + width > viewportX
+                && y < viewportY + viewportHeight && y + height > viewportY;
+        if (visible) {
+            drawnCount++;
+        } else {
+            culledCount++;
         }
+        return visible;
+    }
+    
+    /**
+     * 获取上一帧通过视口检查而绘制的对象数量
+     */
+    public int getDrawnCount() {
+        return lastDrawnCount;
+    }
+    
+    /**
+     * 获取上一帧因在视口之外而跳过的对象数量
+     */
+    public int getCulledCount() {
+        return lastCulledCount;
     }
     
     /**
@@ -175,7 +385,7 @@ public class Renderer extends JFrame {
      * 清理资源
      */
     public void cleanup() {
-        dispose();
+        SwingUtilities.invokeLater(this::dispose);
     }
     
     // Getters
@@ -191,252 +401,56 @@ public class Renderer extends JFrame {
         return title;
     }
     
-    /**
-     * 游戏面板类
-     */
-    private class GamePanel extends JPanel {
-        private List<Drawable> drawables = new ArrayList<>();
-        
-        public GamePanel() {
-            setPreferredSize(new Dimension(width, height));
-            setBackground(Color.BLACK);
-        }
-        
-        public void clear() {
-            drawables.clear();
-        }
-        
-        public void addDrawable(Drawable drawable) {
-            drawables.add(drawable);
-        }
-        
-        @Override
-        protected void paintComponent(Graphics g) {
-            super.paintComponent(g);
-            Graphics2D g2d = (Graphics2D) g;
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            
-            for (Drawable drawable : drawables) {
-                drawable.draw(g2d);
-            }
-        }
+    public RenderMode getRenderMode() {
+        return renderMode;
     }
     
-    /**
-     * 可绘制对象接口
-     */
-    private interface Drawable {
-        void draw(Graphics2D g);
+    public RenderBackend getRenderBackend() {
+        return renderBackend;
     }
     
     /**
-     * 矩形绘制类
+     * 获取上一帧从开始回放到提交完成的耗时（毫秒），仅主动模式有效
      */
-    private static class RectDrawable implements Drawable {
-        private float x, y, width, height;
-        private Color color;
-        
-        public RectDrawable(float x, float y, float width, float height, float r, float g, float b, float a) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.fillRect((int) x, (int) y, (int) width, (int) height);
-        }
+    public float getLastRenderTime() {
+        return lastRenderTime;
     }
     
     /**
-     * 圆形绘制类
+     * 获取上一帧调用show()和sync()提交画面的耗时（毫秒），仅主动模式有效
      */
-    private static class CircleDrawable implements Drawable {
-        private float x, y, radius;
-        private Color color;
-        
-        public CircleDrawable(float x, float y, float radius, float r, float g, float b, float a) {
-            this.x = x;
-            this.y = y;
-            this.radius = radius;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.fillOval((int) (x - radius), (int) (y - radius), (int) (radius * 2), (int) (radius * 2));
-        }
+    public float getLastPresentLatency() {
+        return lastPresentLatency;
     }
     
     /**
-     * 线条绘制类
-     */
-    private static class LineDrawable implements Drawable {
-        private float x1, y1, x2, y2;
-        private Color color;
-        
-        public LineDrawable(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
-            this.x1 = x1;
-            this.y1 = y1;
-            this.x2 = x2;
-            this.y2 = y2;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            g.drawLine((int) x1, (int) y1, (int) x2, (int) y2);
-        }
-    }
-
-    /**
-     * 图像绘制类
+     * 获取平滑后的提交耗时（毫秒），仅主动模式有效
      */
-    private static class ImageDrawable implements Drawable {
-        private Image image;
-        private float x, y;
-        private int width, height;
-
-        public ImageDrawable(Image image, float x, float y, int width, int height) {
-            this.image = image;
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-        }
-
-        @Override
-        public void draw(Graphics2D g) {
-            if (image != null) {
-                g.drawImage(image, (int) x, (int) y, width, height, null);
-            }
-        }
+    public float getAveragePresentLatency() {
+        return averagePresentLatency;
     }
     
     /**
-     * 进度条绘制类
+     * 游戏面板类
      */
-    private static class ProgressBarDrawable implements Drawable {
-        private float x, y, width, height, progress;
-        private Color color;
-        
-        public ProgressBarDrawable(float x, float y, float width, float height, float progress, float r, float g, float b, float a) {
-            this.x = x;
-            this.y = y;
-            this.width = width;
-            this.height = height;
-            this.progress = Math.max(0, Math.min(1, progress)); // 限制在0-1之间
-            this.color = new Color(r, g, b, a);
+    private class GamePanel extends JPanel {
+        public GamePanel() {
+            setPreferredSize(new Dimension(width, height));
+            setBackground(Color.BLACK);
         }
         
         @Override
-        public void draw(Graphics2D g) {
-            // 绘制背景
-            g.setColor(new Color(0.2f, 0.2f, 0.2f, 1.0f));
-            g.fillRect((int) x, (int) y, (int) width, (int) height);
-            
-            // 绘制进度
-            g.setColor(color);
-            float progressWidth = width * progress;
-            g.fillRect((int) x, (int) y, (int) progressWidth, (int) height);
+        protected void paintComponent(Graphics g) {
+            super.paintComponent(g);
+            Graphics2D g2d = (Graphics2D) g;
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
             
-            // 绘制边框
-            g.setColor(Color.WHITE);
-            g.drawRect((int) x, (int) y, (int) width, (int) height);
-        }
-    }
-    
-    /**
-     * 文本绘制类
-     */
-    private static class TextDrawable implements Drawable {
-        private String text;
-        private float x, y;
-        private Color color;
-        
-        public TextDrawable(String text, float x, float y, float r, float g, float b, float a) {
-            this.text = text;
-            this.x = x;
-            this.y = y;
-            this.color = new Color(r, g, b, a);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            g.setColor(color);
-            // 使用支持中文的字体
-            Font font = new Font("Microsoft YaHei", Font.BOLD, 14);
-            if (font.canDisplay('中')) {
-                g.setFont(font);
-            } else {
-                // 如果微软雅黑不可用，尝试其他中文字体
-                font = new Font("SimSun", Font.BOLD, 14);
-                if (font.canDisplay('中')) {
-                    g.setFont(font);
-                } else {
-                    // 使用系统默认字体
-                    g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 14));
-                }
+            // 有新帧时把手上的缓冲区换回中间槽位，否则重绘上一帧
+            if ((published.get() & FRESH) != 0) {
+                painting = published.getAndSet(painting) & ~FRESH;
+                paintingFrame = bufferFrames[painting];
             }
-            g.drawString(text, (int) x, (int) y);
-        }
-    }
-    
-    /**
-     * 渐变圆形绘制类
-     */
-    private static class GradientCircleDrawable implements Drawable {
-        private float x, y, radius, alpha;
-        private Color color;
-        
-        public GradientCircleDrawable(float x, float y, float radius, float alpha, float r, float g, float b) {
-            this.x = x;
-            this.y = y;
-            this.radius = radius;
-            this.alpha = Math.max(0, Math.min(1, alpha)); // 限制在0-1之间
-            this.color = new Color(r, g, b, alpha);
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            // 创建径向渐变
-            java.awt.geom.Point2D center = new java.awt.geom.Point2D.Float(x, y);
-            float[] dist = {0.0f, 1.0f};
-            Color[] colors = {
-                new Color(color.getRed(), color.getGreen(), color.getBlue(), (int)(alpha * 255)), // 中心
-                new Color(color.getRed(), color.getGreen(), color.getBlue(), 0) // 边缘透明
-            };
-            RadialGradientPaint gradient = new RadialGradientPaint(center, radius, dist, colors);
-            
-            g.setPaint(gradient);
-            g.fillOval((int)(x - radius), (int)(y - radius), (int)(radius * 2), (int)(radius * 2));
-        }
-    }
-    
-    /**
-     * 粒子绘制类
-     */
-    private static class ParticleDrawable implements Drawable {
-        private com.gameengine.components.ParticleSystemComponent.Particle particle;
-        
-        public ParticleDrawable(com.gameengine.components.ParticleSystemComponent.Particle particle) {
-            this.particle = particle;
-        }
-        
-        @Override
-        public void draw(Graphics2D g) {
-            float[] color = particle.color;
-            float alpha = particle.getAlpha();
-            float size = particle.getSize();
-            
-            g.setColor(new Color(color[0], color[1], color[2], alpha));
-            g.fillOval((int)(particle.position.x - size/2), (int)(particle.position.y - size/2), 
-                      (int)size, (int)size);
+            paintFrame(g2d, buffers[painting]);
         }
     }
 }
@@ -0,0 +1,542 @@
+package com.gameengine.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 软件光栅化后端
+ * 把CommandBuffer中的矩形、圆形、线段、图像、进度条和渐变圆直接写入BufferedImage的int[]像素数组，
+ * 不经过Java2D逐个图元的绘制管线，不依赖显卡。
+ * 画面被划分为TILE_SIZE见方的图块，命令先按包围盒分配到相交的图块，各图块在ForkJoinPool上并行光栅化。
+ * 每个图块只写自己范围内的像素，并按记录顺序执行命令，因此结果与顺序绘制相同。
+ * 文本和数字仍由Java2D绘制：遇到文本命令时先完成之前的所有图元，再在同一张图像上绘制文本，保持绘制顺序。
+ * 圆形边缘按覆盖率抗锯齿，线段不抗锯齿，与Java2D的绘制结果有细微差别。
+ * 实例不是线程安全的，同一时间只能在一个线程上调用render。
+ */
+public class SoftwareRasterizer {
+    private static final int TILE_SHIFT = 6;
+    private static final int TILE_SIZE = 1 << TILE_SHIFT; // 图块边长（像素）
+    private static final int BACKGROUND = 0xFF000000;
+
+    private final int width;
+    private final int height;
+    private final int tilesX;
+    private final int tilesY;
+    private final BufferedImage image;
+    private final int[] pixels;
+    private final ForkJoinPool pool;
+
+    // 每个图块按顺序记录与之相交的命令下标
+    private final int[][] tileCommands;
+    private final int[] tileCounts;
+    // 每条命令的参数起始位置和像素包围盒[x0, y0, x1, y1)
+    private int[] argStarts = new int[1024];
+    private int[] refStarts = new int[1024];
+    private int[] bounds = new int[1024 * 4];
+    // 图像命令对应的像素数据，分配图块时解析
+    private Sprite[] commandSprites = new Sprite[1024];
+    private final Map<Image, Sprite> sprites = new WeakHashMap<>();
+
+    // 正在光栅化的命令，只在render期间有效
+    private CommandBuffer commands;
+    private float[] args;
+
+    public SoftwareRasterizer(int width, int height) {
+        this(width, height, ForkJoinPool.commonPool());
+    }
+
+    public SoftwareRasterizer(int width, int height, ForkJoinPool pool) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("画面尺寸必须为正数: " + width + "x" + height);
+        }
+        this.width = width;
+        this.height = height;
+        this.pool = pool;
+        this.tilesX = (width + TILE_SIZE - 1) >> TILE_SHIFT;
+        this.tilesY = (height + TILE_SIZE - 1) >> TILE_SHIFT;
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.tileCommands = new int[tilesX * tilesY][64];
+        this.tileCounts = new int[tilesX * tilesY];
+    }
+
+    /**
+     * 把一帧命令绘制到内部图像上并返回该图像，图像在下一次调用render前有效
+     */
+    public BufferedImage render(CommandBuffer frame) {
+        commands = frame;
+        args = frame.args();
+        int count = frame.size();
+        prepare(count);
+        Arrays.fill(pixels, BACKGROUND);
+
+        // 以连续的文本命令为界分段：图元并行光栅化，文本用Java2D绘制
+        Graphics2D g = null;
+        try {
+            int start = 0;
+            while (start < count) {
+                int end = start;
+                while (end < count && !isText(frame.opAt(end))) {
+                    end++;
+                }
+                if (end > start) {
+                    rasterize(start, end);
+                }
+                int textEnd = end;
+                while (textEnd < count && isText(frame.opAt(textEnd))) {
+                    textEnd++;
+                }
+                if (textEnd > end) {
+                    if (g == null) {
+                        g = image.createGraphics();
+                        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    }
+                    frame.replay(g, end, textEnd, argStarts[end], refStarts[end]);
+                }
+                start = textEnd;
+            }
+        } finally {
+            if (g != null) {
+                g.dispose();
+            }
+            Arrays.fill(commandSprites, 0, count, null);
+            commands = null;
+            args = null;
+        }
+        return image;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    private static boolean isText(int op) {
+        return op == CommandBuffer.OP_TEXT || op == CommandBuffer.OP_NUMBER;
+    }
+
+    // 计算每条命令的参数位置
+    private void prepare(int count) {
+        if (argStarts.length < count) {
+            int capacity = Math.max(count, argStarts.length * 2);
+            argStarts = new int[capacity];
+            refStarts = new int[capacity];
+            bounds = new int[capacity * 4];
+            commandSprites = new Sprite[capacity];
+        }
+        int a = 0;
+        int r = 0;
+        for (int i = 0; i < count; i++) {
+            int op = commands.opAt(i);
+            argStarts[i] = a;
+            refStarts[i] = r;
+            a += CommandBuffer.argSize(op);
+            r += CommandBuffer.refSize(op);
+        }
+    }
+
+    // 把[from, to)的命令分配到图块，然后并行光栅化所有图块
+    private void rasterize(int from, int to) {
+        Arrays.fill(tileCounts, 0);
+        boolean any = false;
+        for (int i = from; i < to; i++) {
+            if (!computeBounds(i)) {
+                continue;
+            }
+            int tx0 = bounds[i * 4] >> TILE_SHIFT;
+            int ty0 = bounds[i * 4 + 1] >> TILE_SHIFT;
+            int tx1 = (bounds[i * 4 + 2] - 1) >> TILE_SHIFT;
+            int ty1 = (bounds[i * 4 + 3] - 1) >> TILE_SHIFT;
+            for (int ty = ty0; ty <= ty1; ty++) {
+                for (int tx = tx0; tx <= tx1; tx++) {
+                    int tile = ty * tilesX + tx;
+                    int n = tileCounts[tile];
+                    if (n == tileCommands[tile].length) {
+                        tileCommands[tile] = Arrays.copyOf(tileCommands[tile], n * 2);
+                    }
+                    tileCommands[tile][n] = i;
+                    tileCounts[tile] = n + 1;
+                }
+            }
+            any = true;
+        }
+        if (any) {
+            pool.invoke(new TileTask(0, tileCounts.length));
+        }
+    }
+
+    // 计算命令裁剪到画面后的包围盒，完全在画面之外时返回false
+    private boolean computeBounds(int i) {
+        int a = argStarts[i];
+        int x0, y0, x1, y1;
+        switch (commands.opAt(i)) {
+            case CommandBuffer.OP_RECT:
+            case CommandBuffer.OP_IMAGE:
+                x0 = (int) args[a];
+                y0 = (int) args[a + 1];
+                x1 = x0 + (int) args[a + 2];
+                y1 = y0 + (int) args[a + 3];
+                if (commands.opAt(i) == CommandBuffer.OP_IMAGE) {
+                    Object image = commands.refs()[refStarts[i]];
+                    Sprite sprite = image != null ? sprite((Image) image) : null;
+                    if (sprite == null) {
+                        return false;
+                    }
+                    commandSprites[i] = sprite;
+                }
+                break;
+            case CommandBuffer.OP_CIRCLE:
+            case CommandBuffer.OP_GRADIENT_CIRCLE: {
+                float radius = args[a + 2];
+                x0 = (int) Math.floor(args[a] - radius - 1);
+                y0 = (int) Math.floor(args[a + 1] - radius - 1);
+                x1 = (int) Math.ceil(args[a] + radius + 1);
+                y1 = (int) Math.ceil(args[a + 1] + radius + 1);
+                break;
+            }
+            case CommandBuffer.OP_LINE:
+                x0 = Math.min((int) args[a], (int) args[a + 2]);
+                y0 = Math.min((int) args[a + 1], (int) args[a + 3]);
+                x1 = Math.max((int) args[a], (int) args[a + 2]) + 1;
+                y1 = Math.max((int) args[a + 1], (int) args[a + 3]) + 1;
+                break;
+            case CommandBuffer.OP_PROGRESS_BAR:
+                // 边框比填充区域多一个像素
+                x0 = (int) args[a];
+                y0 = (int) args[a + 1];
+                x1 = x0 + (int) args[a + 2] + 1;
+                y1 = y0 + (int) args[a + 3] + 1;
+                break;
+            default:
+                return false;
+        }
+        x0 = Math.max(x0, 0);
+        y0 = Math.max(y0, 0);
+        x1 = Math.min(x1, width);
+        y1 = Math.min(y1, height);
+        if (x0 >= x1 || y0 >= y1) {
+            return false;
+        }
+        bounds[i * 4] = x0;
+        bounds[i * 4 + 1] = y0;
+        bounds[i * 4 + 2] = x1;
+        bounds[i * 4 + 3] = y1;
+        return true;
+    }
+
+    // 按记录顺序执行与图块相交的命令，所有写入都裁剪到图块范围内
+    private void rasterizeTile(int tile) {
+        int clipX0 = (tile % tilesX) << TILE_SHIFT;
+        int clipY0 = (tile / tilesX) << TILE_SHIFT;
+        int clipX1 = Math.min(clipX0 + TILE_SIZE, width);
+        int clipY1 = Math.min(clipY0 + TILE_SIZE, height);
+        int[] list = tileCommands[tile];
+        for (int k = 0, n = tileCounts[tile]; k < n; k++) {
+            int i = list[k];
+            int a = argStarts[i];
+            int argb = commands.colorAt(i);
+            // 命令包围盒与图块的交集
+            int x0 = Math.max(bounds[i * 4], clipX0);
+            int y0 = Math.max(bounds[i * 4 + 1], clipY0);
+            int x1 = Math.min(bounds[i * 4 + 2], clipX1);
+            int y1 = Math.min(bounds[i * 4 + 3], clipY1);
+            switch (commands.opAt(i)) {
+                case CommandBuffer.OP_RECT:
+                    fillRect(x0, y0, x1, y1, argb);
+                    break;
+                case CommandBuffer.OP_CIRCLE: {
+                    // 与Java2D回放时的fillOval一样把外接矩形取整，圆心位置保持一致
+                    float radius = args[a + 2];
+                    float left = (int) (args[a] - radius);
+                    float top = (int) (args[a + 1] - radius);
+                    float diameter = (int) (radius * 2);
+                    fillCircle(left + diameter / 2, top + diameter / 2, diameter / 2, argb, x0, y0, x1, y1);
+                    break;
+                }
+                case CommandBuffer.OP_LINE:
+                    drawLine((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3], argb, x0, y0, x1, y1);
+                    break;
+                case CommandBuffer.OP_IMAGE:
+                    drawSprite(commandSprites[i], (int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3],
+                               x0, y0, x1, y1);
+                    break;
+                case CommandBuffer.OP_PROGRESS_BAR:
+                    drawProgressBar((int) args[a], (int) args[a + 1], (int) args[a + 2], (int) args[a + 3], args[a + 4],
+                                    argb, x0, y0, x1, y1);
+                    break;
+                case CommandBuffer.OP_GRADIENT_CIRCLE:
+                    fillGradientCircle(args[a], args[a + 1], args[a + 2], argb, x0, y0, x1, y1);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void fillRect(int x0, int y0, int x1, int y1, int argb) {
+        int alpha = argb >>> 24;
+        if (alpha == 0 || x0 >= x1) return;
+        for (int y = y0; y < y1; y++) {
+            fillSpan(y * width, x0, x1, argb, alpha);
+        }
+    }
+
+    // 在[x0, x1)范围内以给定透明度填充一行
+    private void fillSpan(int row, int x0, int x1, int argb, int alpha) {
+        if (alpha >= 255) {
+            Arrays.fill(pixels, row + x0, row + x1, argb | BACKGROUND);
+            return;
+        }
+        for (int x = row + x0, end = row + x1; x < end; x++) {
+            pixels[x] = blend(pixels[x], argb, alpha);
+        }
+    }
+
+    private void fillCircle(float cx, float cy, float radius, int argb, int x0, int y0, int x1, int y1) {
+        int alpha = argb >>> 24;
+        if (alpha == 0 || radius <= 0) return;
+        float outer = radius + 0.5f;
+        float inner = radius - 0.5f;
+        for (int y = y0; y < y1; y++) {
+            float dy = y + 0.5f - cy;
+            float outer2 = outer * outer - dy * dy;
+            if (outer2 <= 0) continue;
+            float half = (float) Math.sqrt(outer2);
+            int sx0 = Math.max(x0, (int) Math.floor(cx - half));
+            int sx1 = Math.min(x1, (int) Math.ceil(cx + half));
+            // 像素中心到圆心的距离不超过radius - 0.5时完全覆盖，直接填充
+            int fx0 = sx1;
+            int fx1 = sx1;
+            float inner2 = inner > 0 ? inner * inner - dy * dy : -1;
+            if (inner2 >= 0) {
+                float innerHalf = (float) Math.sqrt(inner2);
+                fx0 = Math.min(sx1, Math.max(sx0, (int) Math.ceil(cx - innerHalf - 0.5f)));
+                fx1 = Math.min(sx1, Math.max(fx0, (int) Math.floor(cx + innerHalf - 0.5f) + 1));
+            }
+            int row = y * width;
+            for (int x = sx0; x < fx0; x++) {
+                blendCoverage(row + x, x, dy, cx, outer, argb, alpha);
+            }
+            fillSpan(row, fx0, fx1, argb, alpha);
+            for (int x = fx1; x < sx1; x++) {
+                blendCoverage(row + x, x, dy, cx, outer, argb, alpha);
+            }
+        }
+    }
+
+    // 圆的边缘像素按覆盖率混合
+    private void blendCoverage(int index, int x, float dy, float cx, float outer, int argb, int alpha) {
+        float dx = x + 0.5f - cx;
+        float coverage = outer - (float) Math.sqrt(dx * dx + dy * dy);
+        if (coverage <= 0) return;
+        int a = coverage >= 1 ? alpha : (int) (alpha * coverage + 0.5f);
+        pixels[index] = blend(pixels[index], argb, a);
+    }
+
+    // 中心为argb颜色，透明度随距离线性减小，到半径处完全透明
+    private void fillGradientCircle(float cx, float cy, float radius, int argb, int x0, int y0, int x1, int y1) {
+        int alpha = argb >>> 24;
+        if (alpha == 0 || radius < 0.5f) return;
+        float scale = alpha / radius;
+        for (int y = y0; y < y1; y++) {
+            float dy = y + 0.5f - cy;
+            float half2 = radius * radius - dy * dy;
+            if (half2 <= 0) continue;
+            float half = (float) Math.sqrt(half2);
+            int sx0 = Math.max(x0, (int) Math.floor(cx - half));
+            int sx1 = Math.min(x1, (int) Math.ceil(cx + half));
+            int row = y * width;
+            for (int x = sx0; x < sx1; x++) {
+                float dx = x + 0.5f - cx;
+                float distance = (float) Math.sqrt(dx * dx + dy * dy);
+                int a = (int) ((radius - distance) * scale + 0.5f);
+                if (a > 0) {
+                    pixels[row + x] = blend(pixels[row + x], argb, Math.min(a, alpha));
+                }
+            }
+        }
+    }
+
+    // 一像素宽的线段，沿主轴逐像素取最近的次轴坐标；每个像素的位置与图块无关，相邻图块拼接无缝
+    private void drawLine(int ax, int ay, int bx, int by, int argb, int x0, int y0, int x1, int y1) {
+        int alpha = argb >>> 24;
+        if (alpha == 0) return;
+        int dx = bx - ax;
+        int dy = by - ay;
+        if (Math.abs(dx) >= Math.abs(dy)) {
+            if (dx < 0) {
+                ax = bx; ay = by; dx = -dx; dy = -dy;
+            }
+            for (int x = x0; x < x1; x++) {
+                int y = dx == 0 ? ay : ay + Math.floorDiv(2 * (x - ax) * dy + dx, 2 * dx);
+                if (y >= y0 && y < y1) {
+                    plot(y * width + x, argb, alpha);
+                }
+            }
+        } else {
+            if (dy < 0) {
+                ax = bx; ay = by; dx = -dx; dy = -dy;
+            }
+            for (int y = y0; y < y1; y++) {
+                int x = ax + Math.floorDiv(2 * (y - ay) * dx + dy, 2 * dy);
+                if (x >= x0 && x < x1) {
+                    plot(y * width + x, argb, alpha);
+                }
+            }
+        }
+    }
+
+    private void plot(int index, int argb, int alpha) {
+        pixels[index] = alpha >= 255 ? argb | BACKGROUND : blend(pixels[index], argb, alpha);
+    }
+
+    // 与CommandBuffer相同：背景、按进度填充、白色边框
+    private void drawProgressBar(int x, int y, int barWidth, int barHeight, float progress, int argb,
+                                 int x0, int y0, int x1, int y1) {
+        fillRect(x0, y0, Math.min(x1, x + barWidth), Math.min(y1, y + barHeight), 0xFF333333);
+        fillRect(x0, y0, Math.min(x1, x + (int) (barWidth * progress)), Math.min(y1, y + barHeight), argb);
+        int white = 0xFFFFFFFF;
+        if (y >= y0 && y < y1) fillRect(x0, y, x1, y + 1, white);
+        int bottom = y + barHeight;
+        if (bottom >= y0 && bottom < y1) fillRect(x0, bottom, x1, bottom + 1, white);
+        if (x >= x0 && x < x1) fillRect(x, y0, x + 1, y1, white);
+        int right = x + barWidth;
+        if (right >= x0 && right < x1) fillRect(right, y0, right + 1, y1, white);
+    }
+
+    // 最近邻缩放绘制，源像素为预乘透明度的ARGB
+    private void drawSprite(Sprite sprite, int x, int y, int w, int h, int x0, int y0, int x1, int y1) {
+        if (w <= 0 || h <= 0) return;
+        int[] source = sprite.pixels;
+        boolean unscaled = w == sprite.width && h == sprite.height;
+        for (int py = y0; py < y1; py++) {
+            int sy = unscaled ? py - y : (int) ((long) (py - y) * sprite.height / h);
+            int sourceRow = sprite.offset + sy * sprite.stride;
+            int row = py * width;
+            for (int px = x0; px < x1; px++) {
+                int sx = unscaled ? px - x : (int) ((long) (px - x) * sprite.width / w);
+                int p = source[sourceRow + sx];
+                int pa = p >>> 24;
+                if (pa == 255) {
+                    pixels[row + px] = p;
+                } else if (pa != 0) {
+                    pixels[row + px] = blendPremultiplied(pixels[row + px], p, pa);
+                }
+            }
+        }
+    }
+
+    // 非预乘颜色以alpha（0-255）混合到不透明的目标像素上
+    private static int blend(int dst, int src, int alpha) {
+        int a = alpha + (alpha >> 7); // 映射到0-256
+        int ia = 256 - a;
+        int rb = (((src & 0xFF00FF) * a + (dst & 0xFF00FF) * ia) >>> 8) & 0xFF00FF;
+        int g = (((src & 0xFF00) * a + (dst & 0xFF00) * ia) >>> 8) & 0xFF00;
+        return BACKGROUND | rb | g;
+    }
+
+    private static int blendPremultiplied(int dst, int src, int alpha) {
+        int ia = 256 - (alpha + (alpha >> 7));
+        int rb = ((src & 0xFF00FF) + (((dst & 0xFF00FF) * ia) >>> 8)) & 0xFF00FF;
+        int g = ((src & 0xFF00) + (((dst & 0xFF00) * ia) >>> 8)) & 0xFF00;
+        return BACKGROUND | rb | g;
+    }
+
+    /**
+     * 获取图像的预乘ARGB像素
+     * INT_ARGB_PRE格式的图像直接读取其像素数组（如RenderLayer的图像），内容变化后自动生效；
+     * 其他格式转换一次后缓存，视为内容不再变化（如AssetManager加载的图像）
+     */
+    private Sprite sprite(Image image) {
+        Sprite sprite = sprites.get(image);
+        if (sprite == null) {
+            sprite = createSprite(image);
+            if (sprite != null) {
+                sprites.put(image, sprite);
+            }
+        }
+        return sprite;
+    }
+
+    private static Sprite createSprite(Image image) {
+        int w = image.getWidth(null);
+        int h = image.getHeight(null);
+        if (w <= 0 || h <= 0) {
+            return null;
+        }
+        if (image instanceof BufferedImage) {
+            BufferedImage buffered = (BufferedImage) image;
+            Raster raster = buffered.getRaster();
+            if (buffered.getType() == BufferedImage.TYPE_INT_ARGB_PRE
+                    && raster.getDataBuffer() instanceof DataBufferInt
+                    && raster.getSampleModel() instanceof SinglePixelPackedSampleModel) {
+                int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+                int offset = raster.getDataBuffer().getOffset()
+                        - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+                return new Sprite(((DataBufferInt) raster.getDataBuffer()).getData(), offset, stride, w, h);
+            }
+        }
+        BufferedImage converted = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = converted.createGraphics();
+        try {
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return new Sprite(((DataBufferInt) converted.getRaster().getDataBuffer()).getData(), 0, w, w, h);
+    }
+
+    private static final class Sprite {
+        final int[] pixels;
+        final int offset;
+        final int stride;
+        final int width;
+        final int height;
+
+        Sprite(int[] pixels, int offset, int stride, int width, int height) {
+            this.pixels = pixels;
+            this.offset = offset;
+            this.stride = stride;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    // 二分图块范围，每个子任务光栅化一个图块
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                if (tileCounts[from] > 0) {
+                    rasterizeTile(from);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new TileTask(from, middle), new TileTask(middle, to));
+        }
+    }
+}
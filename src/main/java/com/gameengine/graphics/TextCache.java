@@ -0,0 +1,146 @@
+package com.gameengine.graphics;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文本绘制缓存
+ * 字体在第一次使用时解析一次；每个字符串的字形排版结果（GlyphVector）按最近使用缓存，
+ * 重复绘制相同文本时不再排版。数字按舍入后的数值缓存排版结果，格式化写入复用的字符数组，
+ * 不需要创建字符串。
+ * 颜色在绘制时设置，不影响缓存。
+ * 每个CommandBuffer持有自己的实例，只在回放它的线程上使用。
+ */
+class TextCache {
+    private static final int MAX_ENTRIES = 256;
+    private static final int NUMBER_CACHE_SIZE = 64;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<String, Entry>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    // 数字排版结果，按舍入后的数值和小数位数直接映射
+    private final long[] numberKeys = new long[NUMBER_CACHE_SIZE];
+    private final int[] numberDecimals = new int[NUMBER_CACHE_SIZE];
+    private final Entry[] numberEntries = new Entry[NUMBER_CACHE_SIZE];
+    private final char[] digits = new char[32];
+    private FontRenderContext renderContext;
+
+    /**
+     * 获取游戏使用的字体
+     */
+    static Font getFont() {
+        return FontHolder.FONT;
+    }
+
+    /**
+     * 在基线位置(x, y)绘制文本，返回文本宽度
+     */
+    float drawString(Graphics2D g, String text, float x, float y) {
+        validate(g);
+        Entry entry = entries.get(text);
+        if (entry == null) {
+            entry = new Entry(getFont().createGlyphVector(renderContext, text));
+            entries.put(text, entry);
+        }
+        g.drawGlyphVector(entry.glyphs, x, y);
+        return entry.advance;
+    }
+
+    /**
+     * 在基线位置(x, y)绘制保留指定位小数的数字，返回数字宽度
+     * 舍入方式与String.format相同（四舍五入），但舍入为零的负数不显示负号
+     */
+    float drawNumber(Graphics2D g, float value, int decimals, float x, float y) {
+        validate(g);
+        decimals = Math.max(0, Math.min(decimals, 6));
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) {
+            scale *= 10;
+        }
+        // 舍入后的值相同则显示相同，以此作为缓存键，负数取反码以区分符号
+        long scaled = Math.round(Math.abs((double) value) * scale);
+        long key = value < 0 && scaled != 0 ? ~scaled : scaled;
+        int index = (int) ((key ^ (key >>> 32)) * 31 + decimals) & (NUMBER_CACHE_SIZE - 1);
+        Entry entry = numberEntries[index];
+        if (entry == null || numberKeys[index] != key || numberDecimals[index] != decimals) {
+            int length = formatNumber(value < 0 && scaled != 0, scaled, decimals);
+            entry = new Entry(getFont().createGlyphVector(renderContext, Arrays.copyOf(digits, length)));
+            numberEntries[index] = entry;
+            numberKeys[index] = key;
+            numberDecimals[index] = decimals;
+        }
+        g.drawGlyphVector(entry.glyphs, x, y);
+        return entry.advance;
+    }
+
+    // 把舍入后的数字从左到右写入digits，返回字符数
+    private int formatNumber(boolean negative, long scaled, int decimals) {
+        // 从右往左写入，然后移到开头
+        int pos = digits.length;
+        for (int i = 0; i < decimals; i++) {
+            digits[--pos] = (char) ('0' + scaled % 10);
+            scaled /= 10;
+        }
+        if (decimals > 0) {
+            digits[--pos] = '.';
+        }
+        do {
+            digits[--pos] = (char) ('0' + scaled % 10);
+            scaled /= 10;
+        } while (scaled > 0 && pos > 1);
+        if (negative) {
+            digits[--pos] = '-';
+        }
+        int length = digits.length - pos;
+        System.arraycopy(digits, pos, digits, 0, length);
+        return length;
+    }
+
+    // 字形排版依赖渲染上下文（抗锯齿、变换等），上下文变化时丢弃缓存
+    private void validate(Graphics2D g) {
+        FontRenderContext context = g.getFontRenderContext();
+        if (!context.equals(renderContext)) {
+            renderContext = context;
+            entries.clear();
+            Arrays.fill(numberEntries, null);
+        }
+    }
+
+    private static final class Entry {
+        final GlyphVector glyphs;
+        final float advance;
+
+        Entry(GlyphVector glyphs) {
+            this.glyphs = glyphs;
+            this.advance = (float) glyphs.getLogicalBounds().getWidth();
+        }
+    }
+
+    // 延迟到第一次使用时解析字体，只解析一次
+    private static final class FontHolder {
+        static final Font FONT = resolveFont();
+
+        private static Font resolveFont() {
+            // 使用支持中文的字体
+            Font font = new Font("Microsoft YaHei", Font.BOLD, 14);
+            if (font.canDisplay('中')) {
+                return font;
+            }
+            // 如果微软雅黑不可用，尝试其他中文字体
+            font = new Font("SimSun", Font.BOLD, 14);
+            if (font.canDisplay('中')) {
+                return font;
+            }
+            // 使用系统默认字体
+            return new Font(Font.SANS_SERIF, Font.BOLD, 14);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Set;
 
 /**
  * 输入管理器，处理键盘和鼠标输入
+ * 事件由Swing事件分发线程写入、由游戏循环线程读取，方法均加锁
  */
 public class InputManager {
     private static InputManager instance;
@@ -37,7 +38,7 @@ public class InputManager {
     /**
      * 更新输入状态
      */
-    public void update() {
+    public synchronized void update() {
         justPressedKeys.clear();
         for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
             mouseButtonsJustPressed[i] = false;
@@ -47,7 +48,7 @@ public class InputManager {
     /**
      * 处理键盘按下事件
      */
-    public void onKeyPressed(int keyCode) {
+    public synchronized void onKeyPressed(int keyCode) {
         if (!pressedKeys.contains(keyCode)) {
             justPressedKeys.add(keyCode);
         }
@@ -58,7 +59,7 @@ public class InputManager {
     /**
      * 处理键盘释放事件
      */
-    public void onKeyReleased(int keyCode) {
+    public synchronized void onKeyReleased(int keyCode) {
         pressedKeys.remove(keyCode);
         keyStates.put(keyCode, false);
     }
@@ -66,7 +67,7 @@ public class InputManager {
     /**
      * 处理鼠标移动事件
      */
-    public void onMouseMoved(float x, float y) {
+    public synchronized void onMouseMoved(float x, float y) {
         mousePosition.x = x;
         mousePosition.y = y;
     }
@@ -74,7 +75,7 @@ public class InputManager {
     /**
      * 处理鼠标按下事件
      */
-    public void onMousePressed(int button) {
+    public synchronized void onMousePressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             if (!mouseButtons[button]) {
                 mouseButtonsJustPressed[button] = true;
@@ -86,7 +87,7 @@ public class InputManager {
     /**
      * 处理鼠标释放事件
      */
-    public void onMouseReleased(int button) {
+    public synchronized void onMouseReleased(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             mouseButtons[button] = false;
         }
@@ -95,21 +96,21 @@ public class InputManager {
     /**
      * 检查按键是否被按下
      */
-    public boolean isKeyPressed(int keyCode) {
+    public synchronized boolean isKeyPressed(int keyCode) {
         return pressedKeys.contains(keyCode);
     }
     
     /**
      * 检查按键是否刚刚被按下（只在这一帧为true）
      */
-    public boolean isKeyJustPressed(int keyCode) {
+    public synchronized boolean isKeyJustPressed(int keyCode) {
         return justPressedKeys.contains(keyCode);
     }
     
     /**
      * 检查鼠标按键是否被按下
      */
-    public boolean isMouseButtonPressed(int button) {
+    public synchronized boolean isMouseButtonPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtons[button];
         }
@@ -119,7 +120,7 @@ public class InputManager {
     /**
      * 检查鼠标按键是否刚刚被按下
      */
-    public boolean isMouseButtonJustPressed(int button) {
+    public synchronized boolean isMouseButtonJustPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtonsJustPressed[button];
         }
@@ -129,21 +130,21 @@ public class InputManager {
     /**
      * 获取鼠标位置
      */
-    public Vector2 getMousePosition() {
+    public synchronized Vector2 getMousePosition() {
         return new Vector2(mousePosition);
     }
     
     /**
      * 获取鼠标X坐标
      */
-    public float getMouseX() {
+    public synchronized float getMouseX() {
         return mousePosition.x;
     }
     
     /**
      * 获取鼠标Y坐标
      */
-    public float getMouseY() {
+    public synchronized float getMouseY() {
         return mousePosition.y;
     }
 }
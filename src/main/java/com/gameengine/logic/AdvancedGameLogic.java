@@ -104,6 +104,7 @@ public class AdvancedGameLogic extends GameLogic {
         // 更新各个子系统
         enemySpawnManager.update(deltaTime, gameStateManager.getGameTimer(), gameStateManager.getGameDuration());
         physicsManager.update();
+        updateFlowField();
         combatSystem.update();
         
         // 只有在非加载状态下才检查游戏结束条件
@@ -113,6 +114,18 @@ public class AdvancedGameLogic extends GameLogic {
         }
     }
     
+    /**
+     * 以玩家位置为目标更新敌人共用的流场，玩家换网格单元时才重新计算
+     */
+    private void updateFlowField() {
+        GameObject player = scene.findGameObjectByTag("Player");
+        if (player == null) return;
+        com.gameengine.components.TransformComponent transform = player.getComponent(com.gameengine.components.TransformComponent.class);
+        if (transform != null) {
+            FlowField.getInstance().update(transform.getX(), transform.getY());
+        }
+    }
+    
     /**
      * 检查游戏结束条件
      */
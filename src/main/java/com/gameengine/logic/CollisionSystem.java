@@ -0,0 +1,274 @@
+package com.gameengine.logic;
+
+import com.gameengine.components.ColliderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.scene.Scene;
+import com.gameengine.scene.SceneQuery;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 碰撞系统
+ * rebuild把所有可能被检测的碰撞体按当前位置插入一个空间哈希网格，并记下所有来源（mask不为0的碰撞体）；
+ * dispatch对每个来源做一次粗筛：查询其本次移动线段包围盒（扩展两者半径）内的碰撞体，
+ * 只保留layer在来源mask中、且注册了处理器的目标，用连续碰撞检测求碰撞时刻，按时刻先后调用处理器。
+ * 处理器按[来源层][目标层]存放在数组中，分发时只做位运算和数组下标，新增碰撞层只需注册处理器。
+ * 来源在处理器中被销毁后不再分发它剩余的碰撞；已销毁的目标会被跳过。
+ * 接触在帧之间持续：一对对象开始接触时调用一次onContactBegin，之后每帧仍接触时调用onContactStay，
+ * 不再接触（包括任一方被销毁）时调用一次onContactEnd。范围攻击只在begin中结算，
+ * 判定区域存在多少帧、帧率多高，每个目标都只受到一次伤害。
+ */
+public class CollisionSystem {
+    /**
+     * 碰撞处理器
+     */
+    public interface Handler {
+        /**
+         * 开始接触
+         * @param source mask包含目标层的碰撞体所属对象
+         * @param target 被碰到的对象
+         * @param time 碰撞时刻，0-1之间，0为来源本次移动的起点，1为当前位置
+         */
+        void onContactBegin(GameObject source, GameObject target, float time);
+
+        /**
+         * 上一次分发时已接触，本次仍接触
+         */
+        default void onContactStay(GameObject source, GameObject target) {
+        }
+
+        /**
+         * 上一次分发时接触，本次不再接触；对象可能已被销毁
+         */
+        default void onContactEnd(GameObject source, GameObject target) {
+        }
+    }
+
+    private static final int LAYER_COUNT = 32;
+
+    private final SceneQuery colliders;
+    private final SpatialHashGrid grid;
+    private final Handler[] handlers = new Handler[LAYER_COUNT * LAYER_COUNT];
+    private final int[] handledTargets = new int[LAYER_COUNT]; // 每个来源层注册了处理器的目标层
+    private int targetLayers; // 所有注册了处理器的目标层
+    private float maxTargetRadius;
+
+    // 本次rebuild记下的来源：移动线段、半径、有处理器的目标层
+    private GameObject[] sources = new GameObject[64];
+    private float[] sourceData = new float[64 * 5]; // 起点x, 起点y, 终点x, 终点y, 半径
+    private int[] sourceLayers = new int[64];
+    private int[] sourceMasks = new int[64];
+    private int sourceCount;
+
+    // 一个来源的碰撞，按时刻升序
+    private GameObject[] contactTargets = new GameObject[16];
+    private float[] contactTimes = new float[16];
+    private int contactCount;
+    private final List<GameObject> candidates = new ArrayList<>();
+
+    // 上一次和本次分发中处于接触状态的对象对
+    private ContactCache previousContacts = new ContactCache();
+    private ContactCache currentContacts = new ContactCache();
+
+    public CollisionSystem(Scene scene, float cellSize) {
+        this.colliders = scene.query(TransformComponent.class, ColliderComponent.class);
+        this.grid = new SpatialHashGrid(cellSize);
+    }
+
+    /**
+     * 注册来源层碰到目标层时的处理器，传入null取消注册
+     */
+    public void setHandler(int sourceLayer, int targetLayer, Handler handler) {
+        int source = layerIndex(sourceLayer);
+        int target = layerIndex(targetLayer);
+        handlers[source * LAYER_COUNT + target] = handler;
+        if (handler != null) {
+            handledTargets[source] |= targetLayer;
+        } else {
+            handledTargets[source] &= ~targetLayer;
+        }
+        targetLayers = 0;
+        for (int mask : handledTargets) {
+            targetLayers |= mask;
+        }
+    }
+
+    /**
+     * 按当前位置重建网格和来源列表
+     */
+    public void rebuild() {
+        grid.clear();
+        Arrays.fill(sources, 0, sourceCount, null);
+        sourceCount = 0;
+        maxTargetRadius = 0;
+        for (int i = 0; i < colliders.size(); i++) {
+            GameObject object = colliders.getGameObject(i);
+            if (!object.isActive()) continue;
+            TransformComponent transform = colliders.get(i, 0);
+            ColliderComponent collider = colliders.get(i, 1);
+            if (!collider.isEnabled()) continue;
+
+            int layer = collider.getLayer();
+            if ((layer & targetLayers) != 0) {
+                grid.insert(object, transform.getX(), transform.getY());
+                maxTargetRadius = Math.max(maxTargetRadius, collider.getRadius());
+            }
+            int mask = collider.getMask() & handledTargets[collider.getLayerIndex()];
+            if (mask != 0) {
+                addSource(object, transform, collider, mask);
+            }
+        }
+    }
+
+    /**
+     * 检测rebuild记下的所有来源并调用处理器
+     * 本次检测到的接触与上一次比对，新出现的调用begin，延续的调用stay，消失的调用end
+     */
+    public void dispatch() {
+        currentContacts.clear();
+        for (int s = 0; s < sourceCount; s++) {
+            GameObject source = sources[s];
+            if (!source.isActive()) continue;
+            collectContacts(s);
+            int base = sourceLayers[s] * LAYER_COUNT;
+            for (int c = 0; c < contactCount && source.isActive(); c++) {
+                GameObject target = contactTargets[c];
+                if (!target.isActive()) continue;
+                ColliderComponent collider = target.getComponent(ColliderComponent.class);
+                if (collider == null) continue;
+                int handlerIndex = base + collider.getLayerIndex();
+                currentContacts.add(source, target, handlerIndex);
+                int previous = previousContacts.find(source, target);
+                if (previous >= 0) {
+                    previousContacts.markSeen(previous);
+                    handlers[handlerIndex].onContactStay(source, target);
+                } else {
+                    handlers[handlerIndex].onContactBegin(source, target, contactTimes[c]);
+                }
+            }
+            Arrays.fill(contactTargets, 0, contactCount, null);
+        }
+        endStaleContacts();
+        ContactCache swap = previousContacts;
+        previousContacts = currentContacts;
+        currentContacts = swap;
+    }
+
+    /**
+     * 重建并分发
+     */
+    public void update() {
+        rebuild();
+        dispatch();
+    }
+
+    /**
+     * 查询指定层中与点(x, y)距离小于radius的对象，使用rebuild时的位置，只包含注册了处理器的目标层
+     * @param out 结果列表，会先被清空
+     * @return 找到的对象数量
+     */
+    public int query(float x, float y, float radius, int layerMask, List<GameObject> out) {
+        grid.query(x, y, radius, out);
+        for (int i = out.size() - 1; i >= 0; i--) {
+            if (!inLayers(out.get(i), layerMask)) {
+                out.remove(i);
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * 查找指定层中离点(x, y)最近且满足条件的对象，使用rebuild时的位置
+     * @param filter 过滤条件，为null表示不过滤
+     * @return 最近的对象，没有则返回null
+     */
+    public GameObject nearest(float x, float y, int layerMask, Predicate<GameObject> filter) {
+        return grid.nearest(x, y, object -> inLayers(object, layerMask) && (filter == null || filter.test(object)));
+    }
+
+    // 上一次接触、本次没有再检测到的对象对
+    private void endStaleContacts() {
+        for (int i = 0; i < previousContacts.size(); i++) {
+            if (previousContacts.isSeen(i)) continue;
+            Handler handler = handlers[previousContacts.getHandlerIndex(i)];
+            if (handler != null) {
+                handler.onContactEnd(previousContacts.getSource(i), previousContacts.getTarget(i));
+            }
+        }
+    }
+
+    private static boolean inLayers(GameObject object, int layerMask) {
+        ColliderComponent collider = object.getComponent(ColliderComponent.class);
+        return collider != null && (collider.getLayer() & layerMask) != 0;
+    }
+
+    private void addSource(GameObject object, TransformComponent transform, ColliderComponent collider, int mask) {
+        if (sourceCount == sources.length) {
+            int capacity = sourceCount * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            sourceData = Arrays.copyOf(sourceData, capacity * 5);
+            sourceLayers = Arrays.copyOf(sourceLayers, capacity);
+            sourceMasks = Arrays.copyOf(sourceMasks, capacity);
+        }
+        int d = sourceCount * 5;
+        sourceData[d] = transform.getPreviousX();
+        sourceData[d + 1] = transform.getPreviousY();
+        sourceData[d + 2] = transform.getX();
+        sourceData[d + 3] = transform.getY();
+        sourceData[d + 4] = collider.getRadius();
+        sourceLayers[sourceCount] = collider.getLayerIndex();
+        sourceMasks[sourceCount] = mask;
+        sources[sourceCount++] = object;
+    }
+
+    // 粗筛出来源移动范围内的目标，逐个计算碰撞时刻，按时刻插入排序
+    private void collectContacts(int s) {
+        contactCount = 0;
+        int d = s * 5;
+        float x0 = sourceData[d];
+        float y0 = sourceData[d + 1];
+        float x1 = sourceData[d + 2];
+        float y1 = sourceData[d + 3];
+        float radius = sourceData[d + 4];
+        float reach = radius + maxTargetRadius;
+        grid.queryBox(Math.min(x0, x1) - reach, Math.min(y0, y1) - reach,
+                      Math.max(x0, x1) + reach, Math.max(y0, y1) + reach, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            GameObject target = candidates.get(i);
+            if (target == sources[s]) continue;
+            ColliderComponent collider = target.getComponent(ColliderComponent.class);
+            if (collider == null || (collider.getLayer() & sourceMasks[s]) == 0) continue;
+            TransformComponent transform = target.getComponent(TransformComponent.class);
+            float time = ContinuousCollision.timeOfImpact(x0, y0, x1, y1, transform.getX(), transform.getY(),
+                                                          radius + collider.getRadius());
+            if (time == ContinuousCollision.NO_HIT) continue;
+            addContact(target, time);
+        }
+    }
+
+    private void addContact(GameObject target, float time) {
+        if (contactCount == contactTargets.length) {
+            contactTargets = Arrays.copyOf(contactTargets, contactCount * 2);
+            contactTimes = Arrays.copyOf(contactTimes, contactCount * 2);
+        }
+        int pos = contactCount++;
+        while (pos > 0 && contactTimes[pos - 1] > time) {
+            contactTargets[pos] = contactTargets[pos - 1];
+            contactTimes[pos] = contactTimes[pos - 1];
+            pos--;
+        }
+        contactTargets[pos] = target;
+        contactTimes[pos] = time;
+    }
+
+    private static int layerIndex(int layer) {
+        if (Integer.bitCount(layer) != 1) {
+            throw new IllegalArgumentException("碰撞层必须只有一个二进制位: " + Integer.toBinaryString(layer));
+        }
+        return Integer.numberOfTrailingZeros(layer);
+    }
+}
@@ -7,6 +7,7 @@ import com.gameengine.core.GameObject;
 import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
+import com.gameengine.characters.CollisionLayers;
 import com.gameengine.characters.Player;
 import com.gameengine.characters.enemies.Boss;
 import com.gameengine.characters.enemies.Enemy;
@@ -20,22 +21,30 @@ import java.util.List;
 /**
  * 战斗系统
  * 负责处理攻击、碰撞检测和战斗逻辑
+ * 碰撞由CollisionSystem按碰撞层分发，每种攻击与目标的组合对应一个处理器，在开始接触时结算
  */
 public class CombatSystem {
+    private static final float GRID_CELL_SIZE = 64.0f; // 与常用攻击半径同一量级
     private Scene scene;
     private InputManager inputManager;
+    private final CollisionSystem collisions;
+    private final List<GameObject> candidates = new ArrayList<>(); // 复用的查询结果
     
     public CombatSystem(Scene scene) {
         this.scene = scene;
         this.inputManager = InputManager.getInstance();
+        this.collisions = new CollisionSystem(scene, GRID_CELL_SIZE);
+        registerCollisionHandlers();
     }
     
     /**
      * 更新战斗系统
      */
     public void update() {
-        handlePlayerAttacks();
+        // 敌人攻击处理完后才恢复Minion/Boss标签，之后再按当前位置重建碰撞网格
         handleEnemyAttacks();
+        collisions.rebuild();
+        handlePlayerAttacks();
         checkCollisions();
     }
     
@@ -74,241 +83,201 @@ public class CombatSystem {
     
     /**
      * 处理敌人攻击
+     * 通过tag索引只遍历发出攻击请求的敌人。恢复标签会把对象移出当前列表并用末尾对象填补，
+     * 因此从后往前遍历，填补进来的对象都已处理过
      */
     public void handleEnemyAttacks() {
         // 处理敌人的攻击请求
-        for (GameObject obj : scene.getGameObjects()) {
-            if ("EnemyNeedsMeleeAttack".equals(obj.getTag())) {
-                TransformComponent transform = obj.getComponent(TransformComponent.class);
-                if (transform != null) {
-                    createEnemyMeleeAttack(transform.getPosition());
-                    playSound("melee_attack"); // 播放敌人近战音效
-                    // 根据对象类型恢复原始标签
-                    if (obj instanceof Boss) {
-                        obj.setTag("Boss");
-                    } else {
-                        obj.setTag("Minion");
-                    }
-                }
-            } else if ("EnemyNeedsRangeAttack".equals(obj.getTag())) {
-                TransformComponent transform = obj.getComponent(TransformComponent.class);
-                GameObject player = scene.findGameObjectByTag("Player");
-                if (transform != null && player != null) {
-                    TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-                    if (playerTransform != null) {
-                        Vector2 target = playerTransform.getPosition();
-                        createBullet(transform.getPosition(), target, "EnemyProjectile");
-                        playSound("bullet_fire"); // 播放敌人子弹音效
-                        // 根据对象类型恢复原始标签
-                        if (obj instanceof Boss) {
-                            obj.setTag("Boss");
-                        } else {
-                            obj.setTag("Minion");
-                        }
-                    }
-                }
-            } else if ("BossNeedsBombAttack".equals(obj.getTag())) {
-                TransformComponent transform = obj.getComponent(TransformComponent.class);
-                GameObject player = scene.findGameObjectByTag("Player");
-                if (transform != null && player != null) {
-                    TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-                    if (playerTransform != null) {
-                        Vector2 target = playerTransform.getPosition();
-                        createBomb(transform.getPosition(), target, "BossBomb");
-                        playSound("bomb_throw"); // 播放炸弹投掷音效
-                        obj.setTag("Boss");
-                    }
-                }
+        List<GameObject> meleeRequests = scene.findGameObjectsByTag("EnemyNeedsMeleeAttack");
+        for (int i = meleeRequests.size() - 1; i >= 0; i--) {
+            GameObject obj = meleeRequests.get(i);
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                createEnemyMeleeAttack(transform.getPosition());
+                playSound("melee_attack"); // 播放敌人近战音效
+                restoreEnemyTag(obj); // 根据对象类型恢复原始标签
             }
         }
-    }
-    
-    /**
-     * 检查碰撞
-     */
-    public void checkCollisions() {
+        
         GameObject player = scene.findGameObjectByTag("Player");
         if (player == null) return;
-
-        List<GameObject> enemies = new ArrayList<>();
-        enemies.addAll(scene.findGameObjectsByTag("Minion"));
-        enemies.addAll(scene.findGameObjectsByTag("Boss"));
-        List<GameObject> playerProjectiles = scene.findGameObjectsByTag("PlayerProjectile");
-        List<GameObject> playerCannonballs = scene.findGameObjectsByTag("PlayerCannonball");
-        List<GameObject> enemyProjectiles = scene.findGameObjectsByTag("EnemyProjectile");
-        List<GameObject> meleeAttacks = scene.findGameObjectsByTag("MeleeAttack");
-        List<GameObject> enemyMeleeAttacks = scene.findGameObjectsByTag("EnemyMeleeAttack");
-
-        HealthComponent playerHealth = player.getComponent(HealthComponent.class);
         TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-        if (playerHealth == null || playerTransform == null) return;
-
-        // 1. 敌人近程攻击 vs 玩家
-        for (GameObject enemyMelee : enemyMeleeAttacks) {
-            TransformComponent meleeTransform = enemyMelee.getComponent(TransformComponent.class);
-            if (meleeTransform != null) {
-                float distance = playerTransform.getPosition().distance(meleeTransform.getPosition());
-                if (distance < Enemy.getMeleeRangeStatic()) { // 敌人近程攻击范围
-                    playerHealth.takeDamage(Enemy.getMeleeDamageStatic()); // 敌人近程攻击伤害
-                    playSound("damage"); // 播放伤害音效
-                    enemyMelee.destroy(); // 销毁攻击判定区域
-                }
+        if (playerTransform == null) return;
+        
+        List<GameObject> rangeRequests = scene.findGameObjectsByTag("EnemyNeedsRangeAttack");
+        for (int i = rangeRequests.size() - 1; i >= 0; i--) {
+            GameObject obj = rangeRequests.get(i);
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                Vector2 target = playerTransform.getPosition();
+                createBullet(transform.getPosition(), target, "EnemyProjectile");
+                playSound("bullet_fire"); // 播放敌人子弹音效
+                restoreEnemyTag(obj); // 根据对象类型恢复原始标签
             }
         }
-
-        // 2. 敌人子弹 vs 玩家
-        for (GameObject projectile : enemyProjectiles) {
-            TransformComponent projTransform = projectile.getComponent(TransformComponent.class);
-            if (projTransform != null) {
-                float distance = playerTransform.getPosition().distance(projTransform.getPosition());
-                if (distance < Bullet.getBulletRange()) { // 子弹碰撞半径
-                    playerHealth.takeDamage(Bullet.getBulletDamage()); // 敌人远程伤害
-                    playSound("damage"); // 播放伤害音效
-                    projectile.destroy(); // 销毁子弹
-                }
+        
+        List<GameObject> bombRequests = scene.findGameObjectsByTag("BossNeedsBombAttack");
+        for (int i = bombRequests.size() - 1; i >= 0; i--) {
+            GameObject obj = bombRequests.get(i);
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                Vector2 target = playerTransform.getPosition();
+                createBomb(transform.getPosition(), target, "BossBomb");
+                playSound("bomb_throw"); // 播放炸弹投掷音效
+                obj.setTag("Boss");
             }
         }
-
-        // 3. 玩家子弹 vs 敌人
-        for (GameObject projectile : playerProjectiles) {
-            TransformComponent projTransform = projectile.getComponent(TransformComponent.class);
-            if (projTransform == null) continue;
-            for (GameObject enemy : enemies) {
-                if (!enemy.isActive()) continue;
-                HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                if (enemyHealth == null || !enemyHealth.isAlive()) continue;
-                TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                if (enemyHealth != null && enemyTransform != null) {
-                    float distance = projTransform.getPosition().distance(enemyTransform.getPosition());
-                    if (distance < Bullet.getBulletRange()) {
-                        enemyHealth.takeDamage(Bullet.getBulletDamage()); // 子弹伤害
-                        projectile.destroy(); // 销毁子弹
-                        break;
-                    }
-                }
-            }
+    }
+    
+    private static void restoreEnemyTag(GameObject obj) {
+        if (obj instanceof Boss) {
+            obj.setTag("Boss");
+        } else {
+            obj.setTag("Minion");
         }
+    }
+    
+    /**
+     * 检查碰撞
+     * 投射物按本次模拟的移动线段做连续碰撞检测，一次移动超过碰撞半径时也不会穿过目标
+     */
+    public void checkCollisions() {
+        collisions.dispatch();
+    }
+    
+    private void registerCollisionHandlers() {
+        collisions.setHandler(CollisionLayers.ENEMY_MELEE, CollisionLayers.PLAYER, this::onEnemyMeleeHitPlayer);
+        collisions.setHandler(CollisionLayers.ENEMY_BULLET, CollisionLayers.PLAYER, this::onEnemyBulletHitPlayer);
+        collisions.setHandler(CollisionLayers.PLAYER_BULLET, CollisionLayers.ENEMY, this::onPlayerBulletHitEnemy);
+        collisions.setHandler(CollisionLayers.PLAYER_CANNONBALL, CollisionLayers.ENEMY, this::onCannonballHitEnemy);
+        collisions.setHandler(CollisionLayers.BOSS_BOMB, CollisionLayers.PLAYER, this::onBombHitPlayer);
+        collisions.setHandler(CollisionLayers.PLAYER_MELEE, CollisionLayers.ENEMY, this::onPlayerMeleeHitEnemy);
+    }
+    
+    /**
+     * 敌人近程攻击 vs 玩家
+     */
+    private void onEnemyMeleeHitPlayer(GameObject melee, GameObject player, float time) {
+        HealthComponent playerHealth = player.getComponent(HealthComponent.class);
+        if (playerHealth == null) return;
+        playerHealth.takeDamage(Enemy.getMeleeDamageStatic()); // 敌人近程攻击伤害
+        playSound("damage"); // 播放伤害音效
+        melee.destroy(); // 销毁攻击判定区域
+    }
+    
+    /**
+     * 敌人子弹 vs 玩家
+     */
+    private void onEnemyBulletHitPlayer(GameObject projectile, GameObject player, float time) {
+        HealthComponent playerHealth = player.getComponent(HealthComponent.class);
+        if (playerHealth == null) return;
+        playerHealth.takeDamage(Bullet.getBulletDamage()); // 敌人远程伤害
+        playSound("damage"); // 播放伤害音效
+        projectile.destroy(); // 销毁子弹
+    }
+    
+    /**
+     * 玩家子弹 vs 敌人，碰撞按时刻先后分发，子弹击中线段上最先碰到的存活敌人
+     */
+    private void onPlayerBulletHitEnemy(GameObject projectile, GameObject enemy, float time) {
+        if (!isAliveEnemy(enemy)) return;
+        enemy.getComponent(HealthComponent.class).takeDamage(Bullet.getBulletDamage()); // 子弹伤害
+        projectile.destroy(); // 销毁子弹
+    }
+    
+    /**
+     * 玩家炮弹 vs 敌人（多目标攻击）
+     * 扫描距离内出现存活敌人时，在碰撞位置爆炸，对攻击范围内的所有敌人造成伤害
+     */
+    private void onCannonballHitEnemy(GameObject cannonball, GameObject enemy, float time) {
+        if (!isAliveEnemy(enemy)) return;
+        TransformComponent projTransform = cannonball.getComponent(TransformComponent.class);
+        float x = impactX(projTransform, time);
+        float y = impactY(projTransform, time);
         
-        // 4. 玩家炮弹 vs 敌人（多目标攻击）
-        for (GameObject cannonball : playerCannonballs) {
-            TransformComponent projTransform = cannonball.getComponent(TransformComponent.class);
-            if (projTransform == null) continue;
-            
-            boolean hitAnyEnemy = false;
-            for (GameObject enemy : enemies) {
-                if (!enemy.isActive()) continue;
-                HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                if (enemyHealth == null || !enemyHealth.isAlive()) continue;
-                TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                if (enemyHealth != null && enemyTransform != null) {
-                    float distance = projTransform.getPosition().distance(enemyTransform.getPosition());
-                    if (distance < Cannonball.getCannonballScanRange()) { // 使用扫描距离进行碰撞检测
-                        hitAnyEnemy = true;
-                        // 不break，继续检查其他敌人
-                    }
-                }
-            }
-            
-            // 如果击中了任何敌人，销毁炮弹并创建爆炸效果
-            if (hitAnyEnemy) {
-                // 在攻击范围内对所有敌人造成伤害
-                for (GameObject enemy : enemies) {
-                    if (!enemy.isActive()) continue;
-                    HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                    if (enemyHealth == null || !enemyHealth.isAlive()) continue;
-                    TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                    if (enemyHealth != null && enemyTransform != null) {
-                        float distance = projTransform.getPosition().distance(enemyTransform.getPosition());
-                        if (distance < Cannonball.getCannonballAttackRange()) { // 使用攻击距离
-                            enemyHealth.takeDamage(Cannonball.getCannonballDamage());
-                        }
-                    }
-                }
-                
-                cannonball.destroy();
-                playSound("bomb_explode"); // 播放炮弹爆炸音效
-                // 创建爆炸效果 - 直接在场景中添加对象
-                GameObject explosionRange = new GameObject("CannonballExplosion", "CannonballExplosion");
-                explosionRange.addComponent(new TransformComponent(new Vector2(projTransform.getPosition().x, projTransform.getPosition().y)));
-                explosionRange.addComponent(new AttackRangeComponent(
-                    Cannonball.getCannonballExplosionDuration(), 
-                    Cannonball.getCannonballExplosionRadius()
-                )); // 使用炮弹类的爆炸效果常量
-                scene.addGameObject(explosionRange);
+        // 在攻击范围内对所有敌人造成伤害
+        collisions.query(x, y, Cannonball.getCannonballAttackRange(), CollisionLayers.ENEMY, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            GameObject target = candidates.get(i);
+            if (isAliveEnemy(target)) {
+                target.getComponent(HealthComponent.class).takeDamage(Cannonball.getCannonballDamage());
             }
         }
         
-        // 5. Boss炸弹 vs 玩家
-        List<GameObject> bossBombs = scene.findGameObjectsByTag("BossBomb");
-        GameObject playerForBomb = scene.findGameObjectByTag("Player");
-        if (playerForBomb != null) {
-            TransformComponent playerTransformForBomb = playerForBomb.getComponent(TransformComponent.class);
-            HealthComponent playerHealthForBomb = playerForBomb.getComponent(HealthComponent.class);
-            
-            for (GameObject bomb : bossBombs) {
-                TransformComponent bombTransform = bomb.getComponent(TransformComponent.class);
-                if (bombTransform != null && playerTransformForBomb != null && playerHealthForBomb != null) {
-                    float distance = bombTransform.getPosition().distance(playerTransformForBomb.getPosition());
-                    if (distance < Bomb.getBombScanRange()) { // 使用扫描距离进行碰撞检测
-                        // 在攻击范围内对玩家造成伤害
-                        if (distance < Bomb.getBombAttackRange()) {
-                            playerHealthForBomb.takeDamage(Bomb.getBombDamage());
-                            playSound("damage"); // 播放伤害音效
-                        }
-                        
-                        bomb.destroy();
-                        playSound("bomb_explode"); // 播放炸弹爆炸音效
-                        
-                        // 创建炸弹爆炸效果
-                        GameObject explosionRange = new GameObject("BombExplosion", "BombExplosion");
-                        explosionRange.addComponent(new TransformComponent(new Vector2(bombTransform.getPosition().x, bombTransform.getPosition().y)));
-                        explosionRange.addComponent(new AttackRangeComponent(
-                            Bomb.getBombExplosionDuration(), 
-                            Bomb.getBombExplosionRadius()
-                        ));
-                        scene.addGameObject(explosionRange);
-                        System.out.println("Boss炸弹击中玩家！");
-                    }
-                }
-            }
-        }
+        cannonball.destroy();
+        playSound("bomb_explode"); // 播放炮弹爆炸音效
+        // 创建爆炸效果 - 直接在场景中添加对象
+        GameObject explosionRange = new GameObject("CannonballExplosion", "CannonballExplosion");
+        explosionRange.addComponent(new TransformComponent(new Vector2(x, y)));
+        explosionRange.addComponent(new AttackRangeComponent(
+            Cannonball.getCannonballExplosionDuration(), 
+            Cannonball.getCannonballExplosionRadius()
+        )); // 使用炮弹类的爆炸效果常量
+        scene.addGameObject(explosionRange);
+    }
+    
+    /**
+     * Boss炸弹 vs 玩家
+     * 进入扫描距离时在碰撞位置爆炸，玩家在攻击范围内时受到伤害
+     */
+    private void onBombHitPlayer(GameObject bomb, GameObject player, float time) {
+        TransformComponent bombTransform = bomb.getComponent(TransformComponent.class);
+        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
+        HealthComponent playerHealth = player.getComponent(HealthComponent.class);
+        if (playerHealth == null) return;
         
-        // 6. 玩家近战 vs 敌人
-        for (GameObject melee : meleeAttacks) {
-            TransformComponent meleeTransform = melee.getComponent(TransformComponent.class);
-            if (meleeTransform == null) continue;
-            for (GameObject enemy : enemies) {
-                HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                if (enemyHealth != null && enemyTransform != null) {
-                    float distance = meleeTransform.getPosition().distance(enemyTransform.getPosition());
-                    if (distance < Player.getMeleeRange()) { // 使用玩家类的近战范围常量
-                        enemyHealth.takeDamage(Player.getMeleeDamage()); // 使用玩家类的近战伤害常量
-                    }
-                }
-            }
+        float x = impactX(bombTransform, time);
+        float y = impactY(bombTransform, time);
+        float dx = x - playerTransform.getX();
+        float dy = y - playerTransform.getY();
+        float attackRange = Bomb.getBombAttackRange();
+        if (dx * dx + dy * dy < attackRange * attackRange) {
+            playerHealth.takeDamage(Bomb.getBombDamage());
+            playSound("damage"); // 播放伤害音效
         }
+        
+        bomb.destroy();
+        playSound("bomb_explode"); // 播放炸弹爆炸音效
+        
+        // 创建炸弹爆炸效果
+        GameObject explosionRange = new GameObject("BombExplosion", "BombExplosion");
+        explosionRange.addComponent(new TransformComponent(new Vector2(x, y)));
+        explosionRange.addComponent(new AttackRangeComponent(
+            Bomb.getBombExplosionDuration(), 
+            Bomb.getBombExplosionRadius()
+        ));
+        scene.addGameObject(explosionRange);
+        System.out.println("Boss炸弹击中玩家！");
+    }
+    
+    /**
+     * 玩家近战 vs 敌人，范围内的每个存活敌人都受到伤害
+     * 只在开始接触时结算，判定区域持续期间每个敌人只受到一次伤害
+     */
+    private void onPlayerMeleeHitEnemy(GameObject melee, GameObject enemy, float time) {
+        if (!isAliveEnemy(enemy)) return;
+        enemy.getComponent(HealthComponent.class).takeDamage(Player.getMeleeDamage()); // 使用玩家类的近战伤害常量
+    }
+    
+    private static float impactX(TransformComponent mover, float time) {
+        return mover.getPreviousX() + (mover.getX() - mover.getPreviousX()) * time;
+    }
+    
+    private static float impactY(TransformComponent mover, float time) {
+        return mover.getPreviousY() + (mover.getY() - mover.getPreviousY()) * time;
+    }
+    
+    private static boolean isAliveEnemy(GameObject enemy) {
+        if (!enemy.isActive()) return false;
+        HealthComponent health = enemy.getComponent(HealthComponent.class);
+        return health != null && health.isAlive();
     }
     
     /**
      * 查找最近的敌人
      */
     private GameObject findNearestEnemy(Vector2 playerPos) {
-        GameObject nearest = null;
-        float minDist = Float.MAX_VALUE;
-        for (GameObject obj : scene.getGameObjects()) {
-            if (("Minion".equals(obj.getTag()) || "Boss".equals(obj.getTag())) && 
-                obj.isActive() && obj.hasComponent(com.gameengine.components.HealthComponent.class) && 
-                obj.getComponent(com.gameengine.components.HealthComponent.class).isAlive() && 
-                obj.hasComponent(TransformComponent.class)) {
-                float dist = playerPos.distance(obj.getComponent(TransformComponent.class).getPosition());
-                if (dist < minDist) {
-                    minDist = dist;
-                    nearest = obj;
-                }
-            }
-        }
-        return nearest;
+        return collisions.nearest(playerPos.x, playerPos.y, CollisionLayers.ENEMY, CombatSystem::isAliveEnemy);
     }
     
     /**
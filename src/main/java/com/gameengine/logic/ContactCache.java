@@ -0,0 +1,123 @@
+package com.gameengine.logic;
+
+import com.gameengine.core.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * 接触对表
+ * 记录一次分发中处于接触状态的（来源, 目标）对象对，以及该对使用的处理器下标。
+ * 按对象身份哈希到桶，同一个桶中的条目用next串成链表；每帧清空后重新加入，
+ * 与上一帧的表比对即可区分开始、持续和结束的接触。稳定状态下加入和查找不分配内存。
+ */
+final class ContactCache {
+    private static final int INITIAL_CAPACITY = 64;
+
+    // 条目数据
+    private GameObject[] sources;
+    private GameObject[] targets;
+    private int[] handlerIndices;
+    private boolean[] seen; // 本帧是否再次检测到该接触
+    private int[] next; // 同一个桶中的下一个条目，-1表示结束
+    private int count;
+
+    // 哈希桶，存放第一个条目的下标
+    private int[] buckets;
+    private int bucketMask;
+
+    ContactCache() {
+        this.sources = new GameObject[INITIAL_CAPACITY];
+        this.targets = new GameObject[INITIAL_CAPACITY];
+        this.handlerIndices = new int[INITIAL_CAPACITY];
+        this.seen = new boolean[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.buckets = new int[INITIAL_CAPACITY * 2];
+        this.bucketMask = buckets.length - 1;
+        clear();
+    }
+
+    void clear() {
+        Arrays.fill(sources, 0, count, null);
+        Arrays.fill(targets, 0, count, null);
+        Arrays.fill(seen, 0, count, false);
+        Arrays.fill(buckets, -1);
+        count = 0;
+    }
+
+    /**
+     * 加入一个接触对，调用者保证该对尚未加入
+     */
+    void add(GameObject source, GameObject target, int handlerIndex) {
+        if (count == sources.length) {
+            grow();
+        }
+        int bucket = bucketOf(source, target);
+        sources[count] = source;
+        targets[count] = target;
+        handlerIndices[count] = handlerIndex;
+        next[count] = buckets[bucket];
+        buckets[bucket] = count;
+        count++;
+    }
+
+    /**
+     * 查找接触对
+     * @return 条目下标，不存在时返回-1
+     */
+    int find(GameObject source, GameObject target) {
+        for (int i = buckets[bucketOf(source, target)]; i >= 0; i = next[i]) {
+            if (sources[i] == source && targets[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    int size() {
+        return count;
+    }
+
+    GameObject getSource(int index) {
+        return sources[index];
+    }
+
+    GameObject getTarget(int index) {
+        return targets[index];
+    }
+
+    int getHandlerIndex(int index) {
+        return handlerIndices[index];
+    }
+
+    boolean isSeen(int index) {
+        return seen[index];
+    }
+
+    void markSeen(int index) {
+        seen[index] = true;
+    }
+
+    private int bucketOf(GameObject source, GameObject target) {
+        int h = System.identityHashCode(source) * 0x9E3779B1 + System.identityHashCode(target) * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    private void grow() {
+        int capacity = sources.length * 2;
+        sources = Arrays.copyOf(sources, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        handlerIndices = Arrays.copyOf(handlerIndices, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        next = Arrays.copyOf(next, capacity);
+
+        // 桶数量随容量翻倍，重新挂接已有条目
+        buckets = new int[capacity * 2];
+        bucketMask = buckets.length - 1;
+        Arrays.fill(buckets, -1);
+        for (int i = 0; i < count; i++) {
+            int bucket = bucketOf(sources[i], targets[i]);
+            next[i] = buckets[bucket];
+            buckets[bucket] = i;
+        }
+    }
+}
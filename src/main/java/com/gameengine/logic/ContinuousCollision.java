@@ -0,0 +1,43 @@
+package com.gameengine.logic;
+
+/**
+ * 连续碰撞检测
+ * 把投射物在一次模拟中的移动看作从起点到终点的线段，求它第一次进入目标圆的时刻，
+ * 即使一次移动的距离超过碰撞半径也不会穿过目标。目标视为在本次模拟中静止于当前位置。
+ */
+public final class ContinuousCollision {
+    /**
+     * 没有碰撞时返回的碰撞时刻
+     */
+    public static final float NO_HIT = -1.0f;
+
+    private ContinuousCollision() {
+    }
+
+    /**
+     * 计算从(x0, y0)移动到(x1, y1)的点第一次与圆心(cx, cy)距离小于radius的时刻
+     * 起点已在圆内时返回0
+     * @return 0-1之间的碰撞时刻，0为起点，1为终点；没有碰撞时返回NO_HIT
+     */
+    public static float timeOfImpact(float x0, float y0, float x1, float y1, float cx, float cy, float radius) {
+        float mx = x0 - cx;
+        float my = y0 - cy;
+        float c = mx * mx + my * my - radius * radius;
+        if (c < 0) {
+            return 0.0f;
+        }
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float a = dx * dx + dy * dy;
+        float b = mx * dx + my * dy; // 一次项系数的一半
+        if (a == 0 || b >= 0) {
+            return NO_HIT; // 没有移动或正在远离圆心
+        }
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) {
+            return NO_HIT;
+        }
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1.0f ? t : NO_HIT;
+    }
+}
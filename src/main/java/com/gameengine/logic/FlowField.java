@@ -0,0 +1,314 @@
+package com.gameengine.logic;
+
+import com.gameengine.math.Vector2;
+
+import java.util.Arrays;
+
+/**
+ * 全局流场寻路
+ * 把覆盖世界（含屏幕外的敌人生成区域）的区域划分为网格，以目标所在单元为起点做一次Dijkstra，
+ * 得到每个单元到目标的路程（直行10、斜行14），再为每个单元记下指向路程最小的相邻单元的单位方向。
+ * 目标换单元或障碍变化时才重新计算，所有敌人只采样方向，寻路开销与敌人数量无关。
+ * 与目标单元之间没有障碍遮挡的单元记为可直视，采样时直接指向目标的精确位置，
+ * 没有障碍时移动与直线追踪完全一致；被遮挡的单元对周围四个单元中心的方向做双线性插值，
+ * 避免移动方向在单元边界处突变。
+ * 离目标不到一个单元、位于网格外或无法到达时采样失败，由调用者直接朝目标移动。
+ */
+public class FlowField {
+    private static final float CELL_SIZE = 32.0f;
+    private static final float ORIGIN_X = -128.0f; // 敌人在屏幕外50像素处生成，四周各留出余量
+    private static final float ORIGIN_Y = -128.0f;
+    private static final int COLUMNS = 33; // 覆盖 -128 ~ 928
+    private static final int ROWS = 27; // 覆盖 -128 ~ 736
+    private static final int STRAIGHT_COST = 10;
+    private static final int DIAGONAL_COST = 14;
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static FlowField instance;
+
+    private final float cellSize;
+    private final float originX;
+    private final float originY;
+    private final int columns;
+    private final int rows;
+
+    private final boolean[] blocked;
+    private final int[] cost; // 到目标的路程
+    private final float[] dirX; // 单元中心的前进方向，无法到达或目标单元为0
+    private final float[] dirY;
+    private final boolean[] lineOfSight; // 单元中心与目标单元中心之间没有障碍
+
+    // Dijkstra使用的二叉堆，存放单元下标和压入时的路程
+    private final int[] heap;
+    private final int[] heapCosts;
+    private int heapSize;
+
+    private int targetCell = -1;
+    private float targetX;
+    private float targetY;
+    private boolean dirty = true;
+
+    private FlowField(float cellSize, float originX, float originY, int columns, int rows) {
+        this.cellSize = cellSize;
+        this.originX = originX;
+        this.originY = originY;
+        this.columns = columns;
+        this.rows = rows;
+        int cells = columns * rows;
+        this.blocked = new boolean[cells];
+        this.cost = new int[cells];
+        this.dirX = new float[cells];
+        this.dirY = new float[cells];
+        this.lineOfSight = new boolean[cells];
+        this.heap = new int[cells * 8]; // 每个单元最多被8个相邻单元各压入一次
+        this.heapCosts = new int[cells * 8];
+    }
+
+    public static FlowField getInstance() {
+        if (instance == null) {
+            instance = new FlowField(CELL_SIZE, ORIGIN_X, ORIGIN_Y, COLUMNS, ROWS);
+        }
+        return instance;
+    }
+
+    /**
+     * 更新目标位置，目标换单元或障碍变化时重新计算流场
+     */
+    public void update(float targetX, float targetY) {
+        this.targetX = targetX;
+        this.targetY = targetY;
+        int cell = cellAt(targetX, targetY);
+        if (cell == targetCell && !dirty) return;
+        targetCell = cell;
+        dirty = false;
+        rebuild();
+    }
+
+    /**
+     * 设置指定位置所在单元是否为障碍，下一次update时重新计算
+     */
+    public void setBlocked(float x, float y, boolean isBlocked) {
+        int cell = cellAt(x, y);
+        if (cell < 0 || blocked[cell] == isBlocked) return;
+        blocked[cell] = isBlocked;
+        dirty = true;
+    }
+
+    /**
+     * 清除所有障碍
+     */
+    public void clearObstacles() {
+        Arrays.fill(blocked, false);
+        dirty = true;
+    }
+
+    /**
+     * 采样指定位置的前进方向
+     * @param out 成功时写入单位方向
+     * @return 离目标不到一个单元、位于网格外、流场尚未计算或无法到达时返回false
+     */
+    public boolean sample(float x, float y, Vector2 out) {
+        int cell = cellAt(x, y);
+        if (cell < 0 || targetCell < 0 || cost[cell] == UNREACHABLE) return false;
+        int cx = cell % columns;
+        int cy = cell / columns;
+        int tx = targetCell % columns;
+        int ty = targetCell / columns;
+        if (Math.abs(cx - tx) <= 1 && Math.abs(cy - ty) <= 1) return false;
+
+        if (lineOfSight[cell]) {
+            float dx = targetX - x;
+            float dy = targetY - y;
+            float distance = (float) Math.sqrt(dx * dx + dy * dy);
+            out.set(dx / distance, dy / distance); // 不在目标相邻单元内，距离不为0
+            return true;
+        }
+
+        // 相对于单元中心的网格坐标，取左上方的单元中心作为插值起点
+        float gx = (x - originX) / cellSize - 0.5f;
+        float gy = (y - originY) / cellSize - 0.5f;
+        int x0 = (int) Math.floor(gx);
+        int y0 = (int) Math.floor(gy);
+        float fx = gx - x0;
+        float fy = gy - y0;
+        float sx = 0, sy = 0;
+        for (int j = 0; j <= 1; j++) {
+            for (int i = 0; i <= 1; i++) {
+                int nx = x0 + i;
+                int ny = y0 + j;
+                if (nx < 0 || ny < 0 || nx >= columns || ny >= rows) continue;
+                int n = ny * columns + nx;
+                float weight = (i == 0 ? 1 - fx : fx) * (j == 0 ? 1 - fy : fy);
+                sx += dirX[n] * weight;
+                sy += dirY[n] * weight;
+            }
+        }
+        float length = (float) Math.sqrt(sx * sx + sy * sy);
+        if (length < 1e-4f) {
+            // 方向相互抵消时使用所在单元自身的方向
+            sx = dirX[cell];
+            sy = dirY[cell];
+            length = 1.0f;
+        }
+        out.set(sx / length, sy / length);
+        return true;
+    }
+
+    /**
+     * 获取指定位置到目标的路程（按直行10、斜行14计），位于网格外或无法到达时返回-1
+     */
+    public int getCost(float x, float y) {
+        int cell = cellAt(x, y);
+        if (cell < 0 || cost[cell] == UNREACHABLE) return -1;
+        return cost[cell];
+    }
+
+    // 位置所在单元的下标，网格外返回-1
+    private int cellAt(float x, float y) {
+        int cx = (int) Math.floor((x - originX) / cellSize);
+        int cy = (int) Math.floor((y - originY) / cellSize);
+        if (cx < 0 || cy < 0 || cx >= columns || cy >= rows) return -1;
+        return cy * columns + cx;
+    }
+
+    private void rebuild() {
+        Arrays.fill(cost, UNREACHABLE);
+        Arrays.fill(dirX, 0);
+        Arrays.fill(dirY, 0);
+        Arrays.fill(lineOfSight, false);
+        if (targetCell < 0) return;
+
+        // Dijkstra：同一单元可能被压入多次，弹出时路程已过期的条目直接跳过
+        heapSize = 0;
+        cost[targetCell] = 0;
+        push(targetCell, 0);
+        while (heapSize > 0) {
+            int popped = heapCosts[0];
+            int cell = pop();
+            if (popped > cost[cell]) continue;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0) continue;
+                    int nx = cx + dx;
+                    int ny = cy + dy;
+                    if (!passable(cx, cy, dx, dy)) continue;
+                    int n = ny * columns + nx;
+                    int next = cost[cell] + (dx != 0 && dy != 0 ? DIAGONAL_COST : STRAIGHT_COST);
+                    if (next < cost[n]) {
+                        cost[n] = next;
+                        push(n, next);
+                    }
+                }
+            }
+        }
+
+        // 可直视的单元指向目标单元中心，其余单元指向路程最小的相邻单元
+        int tx = targetCell % columns;
+        int ty = targetCell / columns;
+        for (int cell = 0; cell < cost.length; cell++) {
+            if (cell == targetCell || cost[cell] == UNREACHABLE) continue;
+            int cx = cell % columns;
+            int cy = cell / columns;
+            if (clearLine(cx, cy, tx, ty)) {
+                float dx = tx - cx;
+                float dy = ty - cy;
+                float length = (float) Math.sqrt(dx * dx + dy * dy);
+                dirX[cell] = dx / length;
+                dirY[cell] = dy / length;
+                lineOfSight[cell] = true;
+                continue;
+            }
+            int best = cost[cell];
+            int bestDx = 0, bestDy = 0;
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dx = -1; dx <= 1; dx++) {
+                    if (dx == 0 && dy == 0) continue;
+                    if (!passable(cx, cy, dx, dy)) continue;
+                    int n = (cy + dy) * columns + cx + dx;
+                    if (cost[n] < best) {
+                        best = cost[n];
+                        bestDx = dx;
+                        bestDy = dy;
+                    }
+                }
+            }
+            float scale = bestDx != 0 && bestDy != 0 ? (float) (1 / Math.sqrt(2)) : 1.0f;
+            dirX[cell] = bestDx * scale;
+            dirY[cell] = bestDy * scale;
+        }
+    }
+
+    // 两个单元中心之间的线段经过的单元（含恰好擦过的拐角两侧）都不是障碍
+    private boolean clearLine(int x0, int y0, int x1, int y1) {
+        int stepX = Integer.signum(x1 - x0);
+        int stepY = Integer.signum(y1 - y0);
+        int nx = Math.abs(x1 - x0);
+        int ny = Math.abs(y1 - y0);
+        int x = x0, y = y0;
+        // 从单元中心出发，ix、iy为已跨过的竖直和水平网格线数量，比较(ix+0.5)/nx与(iy+0.5)/ny决定先跨哪条线
+        for (int ix = 0, iy = 0; ix < nx || iy < ny; ) {
+            long compare = (long) (2 * ix + 1) * ny - (long) (2 * iy + 1) * nx;
+            if (compare == 0) {
+                // 恰好穿过格点，两侧单元都要检查
+                if (blocked[y * columns + x + stepX] || blocked[(y + stepY) * columns + x]) return false;
+                x += stepX;
+                y += stepY;
+                ix++;
+                iy++;
+            } else if (compare < 0) {
+                x += stepX;
+                ix++;
+            } else {
+                y += stepY;
+                iy++;
+            }
+            if (blocked[y * columns + x]) return false;
+        }
+        return true;
+    }
+
+    // 能否从(cx, cy)走到相邻单元，斜行时两侧的直行单元都不能是障碍，避免穿过障碍的拐角
+    private boolean passable(int cx, int cy, int dx, int dy) {
+        int nx = cx + dx;
+        int ny = cy + dy;
+        if (nx < 0 || ny < 0 || nx >= columns || ny >= rows) return false;
+        if (blocked[ny * columns + nx]) return false;
+        if (dx != 0 && dy != 0) {
+            return !blocked[cy * columns + nx] && !blocked[ny * columns + cx];
+        }
+        return true;
+    }
+
+    private void push(int cell, int cellCost) {
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (heapCosts[parent] <= cellCost) break;
+            heap[i] = heap[parent];
+            heapCosts[i] = heapCosts[parent];
+            i = parent;
+        }
+        heap[i] = cell;
+        heapCosts[i] = cellCost;
+    }
+
+    private int pop() {
+        int top = heap[0];
+        int last = heap[--heapSize];
+        int lastCost = heapCosts[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) break;
+            if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) child++;
+            if (heapCosts[child] >= lastCost) break;
+            heap[i] = heap[child];
+            heapCosts[i] = heapCosts[child];
+            i = child;
+        }
+        heap[i] = last;
+        heapCosts[i] = lastCost;
+        return top;
+    }
+}
@@ -1,5 +1,6 @@
 package com.gameengine.logic;
 
+import com.gameengine.core.SwingDialogs;
 
 /**
  * 游戏状态管理器
@@ -115,14 +116,14 @@ public class GameStateManager {
             // 胜利延迟处理
             victoryDelayTimer -= deltaTime;
             if (victoryDelayTimer <= 0) {
-                javax.swing.JOptionPane.showMessageDialog(null, "恭喜通关！葫芦娃胜利！");
+                SwingDialogs.showMessageDialog("恭喜通关！葫芦娃胜利！");
                 System.exit(0);
             }
         } else if (!gameWon && defeatDelayTimer > 0) {
             // 失败延迟处理
             defeatDelayTimer -= deltaTime;
             if (defeatDelayTimer <= 0) {
-                javax.swing.JOptionPane.showMessageDialog(null, "游戏失败！葫芦娃被击败了！");
+                SwingDialogs.showMessageDialog("游戏失败！葫芦娃被击败了！");
                 System.exit(0);
             }
         }
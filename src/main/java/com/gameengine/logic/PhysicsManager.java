@@ -6,8 +6,7 @@ import com.gameengine.core.GameObject;
 import com.gameengine.input.InputManager;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
-
-import java.util.List;
+import com.gameengine.scene.SceneQuery;
 
 /**
  * 物理管理器
@@ -16,10 +15,14 @@ import java.util.List;
 public class PhysicsManager {
     private Scene scene;
     private InputManager inputManager;
+    private SceneQuery physicsQuery; // 同时拥有变换和物理组件的对象
+    private final Vector2 movement = new Vector2(); // 复用的输入方向
+    private final Vector2 velocity = new Vector2(); // 复用的速度
     
     public PhysicsManager(Scene scene) {
         this.scene = scene;
         this.inputManager = InputManager.getInstance();
+        this.physicsQuery = scene.query(TransformComponent.class, PhysicsComponent.class);
     }
     
     /**
@@ -42,7 +45,7 @@ public class PhysicsManager {
         
         if (transform == null || physics == null) return;
         
-        Vector2 movement = new Vector2();
+        movement.set(0, 0);
         
         if (inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38)) { // W或上箭头
             movement.y -= 1;
@@ -58,8 +61,8 @@ public class PhysicsManager {
         }
         
         if (movement.magnitude() > 0) {
-            movement = movement.normalize().multiply(500); // 力量足够大
-            physics.addForce(movement);
+            movement.normalizeLocal().scaleLocal(500); // 力量足够大
+            physics.addForce(movement.x, movement.y);
         }
     }
     
@@ -67,19 +70,21 @@ public class PhysicsManager {
      * 更新物理系统
      */
     public void updatePhysics() {
-        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
-        for (PhysicsComponent physics : physicsComponents) {
-            TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
-            if (transform != null) {
-                Vector2 pos = transform.getPosition();
-                
-                // 边界检查 (让物体停在边界)
-                if (pos.x < 0) { pos.x = 0; physics.getVelocity().x = 0; }
-                if (pos.y < 0) { pos.y = 0; physics.getVelocity().y = 0; }
-                if (pos.x > 800 - 20) { pos.x = 800 - 20; physics.getVelocity().x = 0; }
-                if (pos.y > 600 - 20) { pos.y = 600 - 20; physics.getVelocity().y = 0; }
-                transform.setPosition(pos);
-            }
+        for (int i = 0; i < physicsQuery.size(); i++) {
+            TransformComponent transform = physicsQuery.get(i, 0);
+            PhysicsComponent physics = physicsQuery.get(i, 1);
+            float x = transform.getX();
+            float y = transform.getY();
+            
+            // 边界检查 (让物体停在边界)
+            if (x >= 0 && y >= 0 && x <= 800 - 20 && y <= 600 - 20) continue;
+            physics.getVelocity(velocity);
+            if (x < 0) { x = 0; velocity.x = 0; }
+            if (y < 0) { y = 0; velocity.y = 0; }
+            if (x > 800 - 20) { x = 800 - 20; velocity.x = 0; }
+            if (y > 600 - 20) { y = 600 - 20; velocity.y = 0; }
+            transform.setPosition(x, y);
+            physics.setVelocity(velocity.x, velocity.y);
         }
     }
 }
@@ -0,0 +1,293 @@
+package com.gameengine.logic;
+
+import com.gameengine.core.GameObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 均匀网格空间哈希
+ * 每帧清空后按位置重新插入对象，范围查询只检查覆盖到的网格单元，
+ * 最近邻查询从所在单元开始逐圈向外搜索，找到的结果不可能被更外圈超越时即停止。
+ * 单元坐标经哈希映射到桶，因此不限制世界范围（屏幕外生成的敌人同样可以插入）。
+ * 所有数据存放在可复用的数组中，稳定状态下插入和查询不分配内存。
+ */
+public class SpatialHashGrid {
+    private static final int INITIAL_CAPACITY = 256;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    // 条目数据
+    private GameObject[] objects;
+    private float[] xs;
+    private float[] ys;
+    private int[] cellXs;
+    private int[] cellYs;
+    private int[] next; // 同一个桶中的下一个条目，-1表示结束
+    private int count;
+
+    // 哈希桶，存放第一个条目的下标
+    private int[] buckets;
+    private int bucketMask;
+    
+    // 已占用单元的范围，限制最近邻搜索的圈数
+    private int minCellX, maxCellX, minCellY, maxCellY;
+    
+    // 最近邻查询的候选结果，按距离升序
+    private int[] nearestIndices = new int[8];
+    private float[] nearestDistSq = new float[8];
+    private int nearestCount;
+
+    public SpatialHashGrid(float cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("网格单元大小必须为正数: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+        this.objects = new GameObject[INITIAL_CAPACITY];
+        this.xs = new float[INITIAL_CAPACITY];
+        this.ys = new float[INITIAL_CAPACITY];
+        this.cellXs = new int[INITIAL_CAPACITY];
+        this.cellYs = new int[INITIAL_CAPACITY];
+        this.next = new int[INITIAL_CAPACITY];
+        this.buckets = new int[INITIAL_CAPACITY * 2];
+        this.bucketMask = buckets.length - 1;
+        clear();
+    }
+
+    /**
+     * 清空网格，准备重新插入
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        Arrays.fill(buckets, -1);
+        count = 0;
+        minCellX = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+    }
+
+    /**
+     * 在指定位置插入对象
+     */
+    public void insert(GameObject object, float x, float y) {
+        if (count == objects.length) {
+            grow();
+        }
+        int cx = cellCoord(x);
+        int cy = cellCoord(y);
+        int bucket = bucketOf(cx, cy);
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+        objects[count] = object;
+        xs[count] = x;
+        ys[count] = y;
+        cellXs[count] = cx;
+        cellYs[count] = cy;
+        next[count] = buckets[bucket];
+        buckets[bucket] = count;
+        count++;
+    }
+
+    /**
+     * 查询与指定点距离小于radius的对象
+     * @param out 结果列表，会先被清空
+     * @return 找到的对象数量
+     */
+    public int query(float x, float y, float radius, List<GameObject> out) {
+        out.clear();
+        float radiusSq = radius * radius;
+        int minCx = cellCoord(x - radius);
+        int maxCx = cellCoord(x + radius);
+        int minCy = cellCoord(y - radius);
+        int maxCy = cellCoord(y + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                for (int i = buckets[bucketOf(cx, cy)]; i >= 0; i = next[i]) {
+                    // 不同单元可能落在同一个桶，需要核对单元坐标避免重复
+                    if (cellXs[i] != cx || cellYs[i] != cy) continue;
+                    float dx = xs[i] - x;
+                    float dy = ys[i] - y;
+                    if (dx * dx + dy * dy < radiusSq) {
+                        out.add(objects[i]);
+                    }
+                }
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * 查询位于矩形[minX, maxX] x [minY, maxY]内的对象
+     * 用作粗筛：例如扫掠检测时传入线段包围盒向外扩展半径后的范围，再对结果逐个精确检测
+     * @param out 结果列表，会先被清空
+     * @return 找到的对象数量
+     */
+    public int queryBox(float minX, float minY, float maxX, float maxY, List<GameObject> out) {
+        out.clear();
+        int minCx = Math.max(cellCoord(minX), minCellX);
+        int maxCx = Math.min(cellCoord(maxX), maxCellX);
+        int minCy = Math.max(cellCoord(minY), minCellY);
+        int maxCy = Math.min(cellCoord(maxY), maxCellY);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                for (int i = buckets[bucketOf(cx, cy)]; i >= 0; i = next[i]) {
+                    if (cellXs[i] != cx || cellYs[i] != cy) continue;
+                    if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+                        out.add(objects[i]);
+                    }
+                }
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * 对与指定点距离小于radius的每个对象调用consumer
+     */
+    public void withinRadius(float x, float y, float radius, Consumer<GameObject> consumer) {
+        float radiusSq = radius * radius;
+        int minCx = cellCoord(x - radius);
+        int maxCx = cellCoord(x + radius);
+        int minCy = cellCoord(y - radius);
+        int maxCy = cellCoord(y + radius);
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                for (int i = buckets[bucketOf(cx, cy)]; i >= 0; i = next[i]) {
+                    if (cellXs[i] != cx || cellYs[i] != cy) continue;
+                    float dx = xs[i] - x;
+                    float dy = ys[i] - y;
+                    if (dx * dx + dy * dy < radiusSq) {
+                        consumer.accept(objects[i]);
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * 查找离指定点最近且满足条件的对象
+     * @param filter 过滤条件，为null表示不过滤
+     * @return 最近的对象，没有则返回null
+     */
+    public GameObject nearest(float x, float y, Predicate<GameObject> filter) {
+        searchNearest(x, y, 1, filter);
+        return nearestCount > 0 ? objects[nearestIndices[0]] : null;
+    }
+    
+    /**
+     * 查找离指定点最近的k个满足条件的对象，按距离从近到远放入out
+     * @param out 结果列表，会先被清空
+     * @return 找到的对象数量
+     */
+    public int kNearest(float x, float y, int k, Predicate<GameObject> filter, List<GameObject> out) {
+        out.clear();
+        searchNearest(x, y, k, filter);
+        for (int i = 0; i < nearestCount; i++) {
+            out.add(objects[nearestIndices[i]]);
+        }
+        return nearestCount;
+    }
+    
+    /**
+     * 获取已插入的对象数量
+     */
+    public int size() {
+        return count;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    // 从所在单元逐圈向外搜索，结果保存在nearestIndices中
+    private void searchNearest(float x, float y, int k, Predicate<GameObject> filter) {
+        nearestCount = 0;
+        if (count == 0 || k <= 0) return;
+        if (k > nearestIndices.length) {
+            nearestIndices = new int[k];
+            nearestDistSq = new float[k];
+        }
+        int cx = cellCoord(x);
+        int cy = cellCoord(y);
+        // 查询点在占用范围之外时，跳过必然为空的内圈
+        int startRing = Math.max(Math.max(minCellX - cx, cx - maxCellX), Math.max(minCellY - cy, cy - maxCellY));
+        int maxRing = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+        for (int ring = Math.max(0, startRing); ring <= maxRing; ring++) {
+            // 第ring圈的单元与查询点的距离至少为(ring - 1)个单元
+            if (nearestCount == k && ring > 1) {
+                float reach = (ring - 1) * cellSize;
+                if (nearestDistSq[k - 1] <= reach * reach) return;
+            }
+            if (ring == 0) {
+                scanCell(cx, cy, x, y, k, filter);
+                continue;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                scanCell(cx + dx, cy - ring, x, y, k, filter);
+                scanCell(cx + dx, cy + ring, x, y, k, filter);
+            }
+            for (int dy = -ring + 1; dy <= ring - 1; dy++) {
+                scanCell(cx - ring, cy + dy, x, y, k, filter);
+                scanCell(cx + ring, cy + dy, x, y, k, filter);
+            }
+        }
+    }
+    
+    private void scanCell(int cx, int cy, float x, float y, int k, Predicate<GameObject> filter) {
+        if (cx < minCellX || cx > maxCellX || cy < minCellY || cy > maxCellY) return;
+        for (int i = buckets[bucketOf(cx, cy)]; i >= 0; i = next[i]) {
+            if (cellXs[i] != cx || cellYs[i] != cy) continue;
+            float dx = xs[i] - x;
+            float dy = ys[i] - y;
+            float distSq = dx * dx + dy * dy;
+            if (nearestCount == k && distSq >= nearestDistSq[k - 1]) continue;
+            if (filter != null && !filter.test(objects[i])) continue;
+            
+            // 插入排序，超出k个时丢弃最远的
+            int pos = nearestCount < k ? nearestCount++ : k - 1;
+            while (pos > 0 && nearestDistSq[pos - 1] > distSq) {
+                nearestIndices[pos] = nearestIndices[pos - 1];
+                nearestDistSq[pos] = nearestDistSq[pos - 1];
+                pos--;
+            }
+            nearestIndices[pos] = i;
+            nearestDistSq[pos] = distSq;
+        }
+    }
+    
+    private int cellCoord(float value) {
+        return (int) Math.floor(value * inverseCellSize);
+    }
+
+    private int bucketOf(int cx, int cy) {
+        int h = cx * 0x9E3779B1 + cy * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & bucketMask;
+    }
+
+    private void grow() {
+        int capacity = objects.length * 2;
+        objects = Arrays.copyOf(objects, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        cellXs = Arrays.copyOf(cellXs, capacity);
+        cellYs = Arrays.copyOf(cellYs, capacity);
+        next = Arrays.copyOf(next, capacity);
+
+        // 桶数量随容量翻倍，重新挂接已有条目
+        buckets = new int[capacity * 2];
+        bucketMask = buckets.length - 1;
+        Arrays.fill(buckets, -1);
+        for (int i = 0; i < count; i++) {
+            int bucket = bucketOf(cellXs[i], cellYs[i]);
+            next[i] = buckets[bucket];
+            buckets[bucket] = i;
+        }
+    }
+}
@@ -80,6 +80,100 @@ public class Vector2 {
         return this.subtract(other).magnitude();
     }
     
+    /**
+     * 计算距离的平方，省去开方，适合比较距离
+     */
+    public float distanceSq(float x, float y) {
+        float dx = this.x - x;
+        float dy = this.y - y;
+        return dx * dx + dy * dy;
+    }
+    
+    /**
+     * 计算距离的平方
+     */
+    public float distanceSq(Vector2 other) {
+        return distanceSq(other.x, other.y);
+    }
+    
+    /**
+     * 计算到指定坐标的距离
+     */
+    public float distance(float x, float y) {
+        return (float) Math.sqrt(distanceSq(x, y));
+    }
+    
+    // 以下为原地修改的版本，不创建新对象，返回自身以便链式调用
+    
+    /**
+     * 设置分量
+     */
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    /**
+     * 复制另一个向量的分量
+     */
+    public Vector2 set(Vector2 other) {
+        return set(other.x, other.y);
+    }
+    
+    /**
+     * 原地向量加法
+     */
+    public Vector2 addLocal(Vector2 other) {
+        return addLocal(other.x, other.y);
+    }
+    
+    /**
+     * 原地向量加法
+     */
+    public Vector2 addLocal(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+    
+    /**
+     * 原地向量减法
+     */
+    public Vector2 subtractLocal(Vector2 other) {
+        return subtractLocal(other.x, other.y);
+    }
+    
+    /**
+     * 原地向量减法
+     */
+    public Vector2 subtractLocal(float x, float y) {
+        this.x -= x;
+        this.y -= y;
+        return this;
+    }
+    
+    /**
+     * 原地标量乘法
+     */
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+    
+    /**
+     * 原地标准化，零向量保持不变
+     */
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag != 0) {
+            this.x /= mag;
+            this.y /= mag;
+        }
+        return this;
+    }
+    
     @Override
     public String toString() {
         return String.format("Vector2(%.2f, %.2f)", x, y);
@@ -1,5 +1,7 @@
 package com.gameengine.scene;
 
+import com.gameengine.components.ParticleEngine;
+import com.gameengine.components.PhysicsStorage;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.Component;
 // 移除具体游戏逻辑的import
@@ -16,6 +18,11 @@ public class Scene {
     private List<GameObject> objectsToRemove;
     private boolean initialized;
     private boolean paused = false; // 场景暂停状态
+    private Map<String, List<GameObject>> tagIndex; // tag -> 场景中的对象
+    private Map<String, List<GameObject>> tagViews; // tag -> 只读视图，避免每次查询分配新列表
+    private Set<GameObject> liveObjects; // 已加入场景的对象
+    private Map<List<Class<?>>, SceneQuery> queries; // 组件类型列表 -> 缓存的查询
+    private List<SceneQuery> queryList;
     // 移除未使用的组件索引
     
     public Scene(String name) {
@@ -24,7 +31,11 @@ public class Scene {
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
-        // 移除组件索引初始化
+        this.tagIndex = new HashMap<>();
+        this.tagViews = new HashMap<>();
+        this.liveObjects = new HashSet<>();
+        this.queries = new HashMap<>();
+        this.queryList = new ArrayList<>();
     }
     
     /**
@@ -44,6 +55,11 @@ public class Scene {
         // 添加新对象
         for (GameObject obj : objectsToAdd) {
             gameObjects.add(obj);
+            indexTag(obj, obj.getTag());
+            liveObjects.add(obj);
+            for (int i = 0; i < queryList.size(); i++) {
+                queryList.get(i).refresh(obj);
+            }
             if (initialized) {
                 obj.initialize();
             }
@@ -52,7 +68,9 @@ public class Scene {
         
         // 移除标记的对象
         for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+            if (gameObjects.remove(obj)) {
+                unindex(obj);
+            }
         }
         objectsToRemove.clear();
         
@@ -61,23 +79,38 @@ public class Scene {
             return;
         }
         
-        // 更新所有活跃的游戏对象
-        Iterator<GameObject> iterator = gameObjects.iterator();
-        while (iterator.hasNext()) {
-            GameObject obj = iterator.next();
+        // 更新所有活跃的游戏对象，并原地压缩掉非活跃对象
+        int alive = 0;
+        int count = gameObjects.size();
+        for (int i = 0; i < count; i++) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.update(deltaTime);
+                gameObjects.set(alive++, obj);
             } else {
-                iterator.remove();
+                unindex(obj);
             }
         }
+        for (int i = count - 1; i >= alive; i--) {
+            gameObjects.remove(i);
+        }
+        
+        // 紧凑存储模式下，物理积分统一在这里完成
+        PhysicsStorage physicsStorage = PhysicsStorage.getInstance();
+        if (physicsStorage.isEnabled()) {
+            physicsStorage.integrate(deltaTime);
+        }
+        
+        // 更新全局粒子
+        ParticleEngine.getInstance().update(deltaTime);
     }
     
     /**
      * 渲染场景
      */
     public void render() {
-        for (GameObject obj : gameObjects) {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.render();
             }
@@ -105,19 +138,98 @@ public class Scene {
      * 根据tag查找第一个游戏对象
      */
     public GameObject findGameObjectByTag(String tag) {
-        return gameObjects.stream()
-            .filter(obj -> tag.equals(obj.getTag()))
-            .findFirst()
-            .orElse(null);
+        List<GameObject> tagged = tagIndex.get(tag);
+        return tagged == null || tagged.isEmpty() ? null : tagged.get(0);
     }
 
     /**
      * 根据tag查找所有游戏对象
+     * 返回的是tag索引的只读实时视图，不复制列表，内容随场景立即变化：对象加入场景或改为该tag时追加到末尾，
+     * 离开场景或改为其他tag时由末尾的对象填补它的位置，因此顺序不保证与加入顺序一致。
+     * 遍历期间如果只修改当前对象的tag，需要按下标从后往前遍历，填补进来的对象都已遍历过；
+     * 其他情况（正向遍历时修改tag、修改其他对象的tag、增删对象）应先复制：
+     * new ArrayList<>(scene.findGameObjectsByTag(tag))
      */
     public List<GameObject> findGameObjectsByTag(String tag) {
-        return gameObjects.stream()
-            .filter(obj -> tag.equals(obj.getTag()))
-            .collect(Collectors.toList());
+        List<GameObject> view = tagViews.get(tag);
+        return view != null ? view : Collections.emptyList();
+    }
+    
+    /**
+     * 游戏对象tag变化时更新索引
+     */
+    public void onGameObjectTagChanged(GameObject gameObject, String oldTag) {
+        // 只有已加入场景的对象才在索引中
+        if (unindexTag(gameObject, oldTag)) {
+            indexTag(gameObject, gameObject.getTag());
+        }
+    }
+    
+    /**
+     * 获取同时拥有所有指定组件的对象的缓存查询
+     * 相同类型组合返回同一个查询对象，调用方可以保存引用，每帧直接遍历
+     */
+    public SceneQuery query(Class<?>... componentTypes) {
+        List<Class<?>> key = Arrays.asList(componentTypes);
+        SceneQuery query = queries.get(key);
+        if (query == null) {
+            query = new SceneQuery(queryList.size(), componentTypes);
+            for (GameObject obj : gameObjects) {
+                query.refresh(obj);
+            }
+            queries.put(new ArrayList<>(key), query);
+            queryList.add(query);
+        }
+        return query;
+    }
+    
+    /**
+     * 游戏对象增删组件时更新相关查询
+     * @param component 变化的组件，为null表示对象的组件被全部清除
+     */
+    public void onComponentsChanged(GameObject gameObject, Component<?> component) {
+        if (!liveObjects.contains(gameObject)) return;
+        for (int i = 0; i < queryList.size(); i++) {
+            SceneQuery query = queryList.get(i);
+            if (component == null || query.isAffectedBy(component)) {
+                query.refresh(gameObject);
+            }
+        }
+    }
+    
+    private void unindex(GameObject gameObject) {
+        unindexTag(gameObject, gameObject.getTag());
+        liveObjects.remove(gameObject);
+        for (int i = 0; i < queryList.size(); i++) {
+            queryList.get(i).remove(gameObject);
+        }
+    }
+    
+    private void indexTag(GameObject gameObject, String tag) {
+        List<GameObject> tagged = tagIndex.get(tag);
+        if (tagged == null) {
+            tagged = new ArrayList<>();
+            tagIndex.put(tag, tagged);
+            tagViews.put(tag, Collections.unmodifiableList(tagged));
+        }
+        gameObject.setTagSlot(tagged.size());
+        tagged.add(gameObject);
+    }
+    
+    // 用列表末尾的对象填补被移除对象的位置，移除和改tag都是O(1)，下标记在对象上，不需要装箱
+    private boolean unindexTag(GameObject gameObject, String tag) {
+        List<GameObject> tagged = tagIndex.get(tag);
+        int slot = gameObject.getTagSlot();
+        if (tagged == null || slot < 0 || slot >= tagged.size() || tagged.get(slot) != gameObject) {
+            return false;
+        }
+        GameObject last = tagged.remove(tagged.size() - 1);
+        if (last != gameObject) {
+            tagged.set(slot, last);
+            last.setTagSlot(slot);
+        }
+        gameObject.setTagSlot(-1);
+        return true;
     }
     
     /**
@@ -132,11 +244,26 @@ public class Scene {
     
     /**
      * 清空场景
+     * 对象会被销毁，释放它们在全局紧凑存储中的槽位，避免被之后运行的场景继续积分
      */
     public void clear() {
+        for (int i = 0; i < gameObjects.size(); i++) {
+            gameObjects.get(i).destroy();
+        }
+        for (int i = 0; i < objectsToAdd.size(); i++) {
+            objectsToAdd.get(i).destroy();
+        }
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        for (List<GameObject> tagged : tagIndex.values()) {
+            tagged.clear();
+        }
+        liveObjects.clear();
+        for (SceneQuery query : queryList) {
+            query.clear();
+        }
+        ParticleEngine.getInstance().clear();
     }
     
     /**
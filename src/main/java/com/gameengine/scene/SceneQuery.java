@@ -0,0 +1,173 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.Component;
+import com.gameengine.core.ComponentRegistry;
+import com.gameengine.core.GameObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 场景多组件查询
+ * 缓存同时拥有所有指定组件的游戏对象及其组件，由Scene在对象增删组件时增量维护。
+ * 按行号遍历，组件按查询时的类型顺序分列存放：
+ * <pre>
+ * SceneQuery query = scene.query(TransformComponent.class, PhysicsComponent.class);
+ * for (int i = 0; i < query.size(); i++) {
+ *     TransformComponent transform = query.get(i, 0);
+ *     PhysicsComponent physics = query.get(i, 1);
+ * }
+ * </pre>
+ * 遍历期间如果增删了匹配的组件，行号会立即变化。
+ */
+public class SceneQuery {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Class<?>[] types;
+    private final int[] typeIds;
+    private final int index; // 在场景中的查询编号，对象按此编号记录自己的行号
+    private final List<GameObject> gameObjects;
+    private Component<?>[][] columns; // columns[列][行]
+
+    SceneQuery(int index, Class<?>[] types) {
+        if (types.length == 0) {
+            throw new IllegalArgumentException("查询至少需要一个组件类型");
+        }
+        this.types = types.clone();
+        this.typeIds = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            if (!Component.class.isAssignableFrom(types[i])) {
+                throw new IllegalArgumentException("不是组件类型: " + types[i].getName());
+            }
+            typeIds[i] = ComponentRegistry.getTypeId(types[i]);
+        }
+        this.index = index;
+        this.gameObjects = new ArrayList<>();
+        this.columns = new Component<?>[types.length][INITIAL_CAPACITY];
+    }
+
+    /**
+     * 匹配的对象数量
+     */
+    public int size() {
+        return gameObjects.size();
+    }
+
+    /**
+     * 获取指定行的游戏对象
+     */
+    public GameObject getGameObject(int row) {
+        return gameObjects.get(row);
+    }
+
+    /**
+     * 获取指定行、指定列的组件，列号即查询时组件类型的顺序
+     */
+    @SuppressWarnings("unchecked")
+    public <C extends Component<C>> C get(int row, int column) {
+        return (C) columns[column][row];
+    }
+
+    /**
+     * 获取查询的组件类型
+     */
+    public Class<?>[] getTypes() {
+        return types.clone();
+    }
+
+    /**
+     * 组件变化是否可能影响本查询
+     */
+    boolean isAffectedBy(Component<?> component) {
+        for (int id : ComponentRegistry.getHierarchyIds(component.getClass())) {
+            for (int typeId : typeIds) {
+                if (id == typeId) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 重新判断对象是否匹配，并更新缓存的行
+     */
+    void refresh(GameObject gameObject) {
+        int row = gameObject.getQueryRow(index);
+        if (!matches(gameObject)) {
+            if (row >= 0) {
+                removeRow(row);
+            }
+            return;
+        }
+        if (row < 0) {
+            row = gameObjects.size();
+            if (row == columns[0].length) {
+                grow();
+            }
+            gameObjects.add(gameObject);
+            gameObject.setQueryRow(index, row);
+        }
+        for (int c = 0; c < typeIds.length; c++) {
+            columns[c][row] = gameObject.getComponentByTypeId(typeIds[c]);
+        }
+    }
+
+    /**
+     * 移除对象
+     */
+    void remove(GameObject gameObject) {
+        int row = gameObject.getQueryRow(index);
+        if (row >= 0) {
+            removeRow(row);
+        }
+    }
+
+    /**
+     * 清空查询结果
+     */
+    void clear() {
+        for (Component<?>[] column : columns) {
+            Arrays.fill(column, 0, gameObjects.size(), null);
+        }
+        for (int i = 0; i < gameObjects.size(); i++) {
+            gameObjects.get(i).setQueryRow(index, -1);
+        }
+        gameObjects.clear();
+    }
+
+    private boolean matches(GameObject gameObject) {
+        for (int typeId : typeIds) {
+            if (gameObject.getComponentByTypeId(typeId) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 用最后一行填补被删除的行
+    private void removeRow(int row) {
+        int last = gameObjects.size() - 1;
+        GameObject removed = gameObjects.get(row);
+        if (row != last) {
+            GameObject moved = gameObjects.get(last);
+            gameObjects.set(row, moved);
+            moved.setQueryRow(index, row);
+            for (Component<?>[] column : columns) {
+                column[row] = column[last];
+            }
+        }
+        for (Component<?>[] column : columns) {
+            column[last] = null;
+        }
+        gameObjects.remove(last);
+        removed.setQueryRow(index, -1);
+    }
+
+    private void grow() {
+        for (int c = 0; c < columns.length; c++) {
+            columns[c] = Arrays.copyOf(columns[c], columns[c].length * 2);
+        }
+    }
+}